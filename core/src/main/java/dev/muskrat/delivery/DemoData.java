@@ -19,6 +19,7 @@ import dev.muskrat.delivery.order.dto.OrderDTO;
 import dev.muskrat.delivery.order.dto.OrderProductDTO;
 import dev.muskrat.delivery.order.dto.OrderUpdateDTO;
 import dev.muskrat.delivery.order.service.OrderService;
+import dev.muskrat.delivery.order.service.OrderViewService;
 import dev.muskrat.delivery.partner.dao.Partner;
 import dev.muskrat.delivery.partner.dao.PartnerRepository;
 import dev.muskrat.delivery.partner.service.PartnerService;
@@ -80,6 +81,7 @@ public class DemoData {
     private final PartnerService partnerService;
     private final AuthorizationService authorizationService;
     private final OrderService orderService;
+    private final OrderViewService orderViewService;
     private final UserService userService;
 
     private final OrderProductTOOrderProductDTOConverter orderProductTOOrderProductDTOConverter;
@@ -221,8 +223,8 @@ public class DemoData {
         City random = cities.get(0);
         for (User user : users) {
             user.setCity(random);
-            userRepository.save(user);
         }
+        userRepository.saveAll(users);
     }
 
     private RegionDelivery generateRegionDelivery() {
@@ -351,6 +353,9 @@ public class DemoData {
                 }
             }
         }
+
+        // Creation times above were moved past the order events
+        orderViewService.rebuild();
     }
 
     public void update() {
@@ -0,0 +1,191 @@
+package dev.muskrat.delivery.admin.components;
+
+import dev.muskrat.delivery.admin.dto.AdminLiveDTO;
+import dev.muskrat.delivery.admin.dto.LiveMetricsDTO;
+import dev.muskrat.delivery.admin.dto.LiveMinuteDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-minute order counters of the last hours, in total and per shop and
+ * city, kept only in memory.
+ * <p>
+ * Every ring has one slot per minute. A slot that still holds an older
+ * minute is replaced by a fresh one with a CAS, so writers never lock and
+ * never zero counters another writer may be adding to; events for minutes
+ * that already left the ring are dropped.
+ */
+@Component
+public class LiveOrderMetrics {
+
+    private static final long MINUTE = 60_000;
+
+    private final int size;
+    private final Ring total;
+    private final ConcurrentMap<Long, Ring> shops = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Ring> cities = new ConcurrentHashMap<>();
+
+    public LiveOrderMetrics(@Value("${application.admin.live.minutes}") int size) {
+        this.size = size;
+        this.total = new Ring(size, null);
+    }
+
+    public void orderCreated(Long shopId, String shopName, Long cityId, String cityName, Double cost) {
+        record(shopId, shopName, cityId, cityName, 1, cost == null ? 0 : cost, 0);
+    }
+
+    public void orderCancelled(Long shopId, String shopName, Long cityId, String cityName) {
+        record(shopId, shopName, cityId, cityName, 0, 0, 1);
+    }
+
+    // Cost changed after the order was placed
+    public void revenueChanged(Long shopId, String shopName, Long cityId, String cityName, double delta) {
+        record(shopId, shopName, cityId, cityName, 0, delta, 0);
+    }
+
+    public AdminLiveDTO snapshot(int minutes) {
+        int window = Math.max(1, Math.min(minutes, size));
+        long now = currentMinute();
+        long from = now - window + 1;
+
+        List<LiveMinuteDTO> series = new ArrayList<>();
+        for (long minute = from; minute <= now; minute++) {
+            Slot slot = total.get(minute);
+            series.add(LiveMinuteDTO.builder()
+                .minute(Instant.ofEpochMilli(minute * MINUTE))
+                .orders(slot == null ? 0 : slot.orders.sum())
+                .revenue(slot == null ? 0 : round(slot.revenue.sum()))
+                .cancelled(slot == null ? 0 : slot.cancelled.sum())
+                .build());
+        }
+
+        return AdminLiveDTO.builder()
+            .minutes(window)
+            .total(total.sum(null, from, now))
+            .shops(sum(shops, from, now))
+            .cities(sum(cities, from, now))
+            .series(series)
+            .build();
+    }
+
+    private void record(Long shopId, String shopName, Long cityId, String cityName,
+                        long orders, double revenue, long cancelled) {
+        long minute = currentMinute();
+        total.add(minute, orders, revenue, cancelled);
+        if (shopId != null)
+            ring(shops, shopId, shopName).add(minute, orders, revenue, cancelled);
+        if (cityId != null)
+            ring(cities, cityId, cityName).add(minute, orders, revenue, cancelled);
+    }
+
+    private Ring ring(ConcurrentMap<Long, Ring> rings, Long id, String name) {
+        Ring ring = rings.computeIfAbsent(id, key -> new Ring(size, name));
+        if (name != null)
+            ring.name = name;
+        return ring;
+    }
+
+    private static List<LiveMetricsDTO> sum(Map<Long, Ring> rings, long from, long to) {
+        List<LiveMetricsDTO> metrics = new ArrayList<>();
+        rings.forEach((id, ring) -> {
+            LiveMetricsDTO dto = ring.sum(id, from, to);
+            if (dto.getOrders() != 0 || dto.getCancelled() != 0 || dto.getRevenue() != 0)
+                metrics.add(dto);
+        });
+        metrics.sort(Comparator.comparing(LiveMetricsDTO::getRevenue).reversed());
+        return metrics;
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / MINUTE;
+    }
+
+    private static double round(double d) {
+        return new BigDecimal(d).setScale(2, RoundingMode.HALF_EVEN).doubleValue();
+    }
+
+    private static class Ring {
+
+        private final AtomicReferenceArray<Slot> slots;
+        private volatile String name;
+
+        private Ring(int size, String name) {
+            this.slots = new AtomicReferenceArray<>(size);
+            this.name = name;
+        }
+
+        private void add(long minute, long orders, double revenue, long cancelled) {
+            int index = (int) (minute % slots.length());
+            Slot slot = slots.get(index);
+            while (slot == null || slot.minute < minute) {
+                Slot fresh = new Slot(minute);
+                if (slots.compareAndSet(index, slot, fresh)) {
+                    slot = fresh;
+                    break;
+                }
+                slot = slots.get(index);
+            }
+            if (slot.minute != minute)
+                return;
+
+            if (orders != 0)
+                slot.orders.add(orders);
+            if (revenue != 0)
+                slot.revenue.add(revenue);
+            if (cancelled != 0)
+                slot.cancelled.add(cancelled);
+        }
+
+        private Slot get(long minute) {
+            Slot slot = slots.get((int) (minute % slots.length()));
+            return slot != null && slot.minute == minute ? slot : null;
+        }
+
+        private LiveMetricsDTO sum(Long id, long from, long to) {
+            long orders = 0, cancelled = 0;
+            double revenue = 0;
+            for (long minute = from; minute <= to; minute++) {
+                Slot slot = get(minute);
+                if (slot == null)
+                    continue;
+                orders += slot.orders.sum();
+                cancelled += slot.cancelled.sum();
+                revenue += slot.revenue.sum();
+            }
+
+            return LiveMetricsDTO.builder()
+                .id(id)
+                .name(name)
+                .orders(orders)
+                .revenue(round(revenue))
+                .cancelled(cancelled)
+                .averageBasket(orders == 0 ? 0 : round(revenue / orders))
+                .build();
+        }
+    }
+
+    private static class Slot {
+
+        private final long minute;
+        private final LongAdder orders = new LongAdder();
+        private final DoubleAdder revenue = new DoubleAdder();
+        private final LongAdder cancelled = new LongAdder();
+
+        private Slot(long minute) {
+            this.minute = minute;
+        }
+    }
+}
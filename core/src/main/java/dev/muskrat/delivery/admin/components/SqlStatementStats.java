@@ -0,0 +1,54 @@
+package dev.muskrat.delivery.admin.components;
+
+import dev.muskrat.delivery.admin.dto.SqlEndpointStatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL statements per endpoint since startup, in memory only. An endpoint
+ * whose maximum grows with the page size is the usual sign of an N+1 query.
+ */
+@Component
+public class SqlStatementStats {
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long statements) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.requests.increment();
+        stats.statements.add(statements);
+        stats.max.accumulateAndGet(statements, Math::max);
+    }
+
+    // Most statements in total first
+    public List<SqlEndpointStatsDTO> snapshot() {
+        List<SqlEndpointStatsDTO> snapshot = new ArrayList<>();
+        endpoints.forEach((endpoint, stats) -> {
+            long requests = stats.requests.sum();
+            long statements = stats.statements.sum();
+            snapshot.add(SqlEndpointStatsDTO.builder()
+                .endpoint(endpoint)
+                .requests(requests)
+                .statements(statements)
+                .average(requests == 0 ? 0 : (double) statements / requests)
+                .max(stats.max.get())
+                .build());
+        });
+        snapshot.sort(Comparator.comparing(SqlEndpointStatsDTO::getStatements).reversed());
+        return snapshot;
+    }
+
+    private static class Endpoint {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+    }
+}
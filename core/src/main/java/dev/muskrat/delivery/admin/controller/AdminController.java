@@ -1,14 +1,17 @@
 package dev.muskrat.delivery.admin.controller;
 
+import dev.muskrat.delivery.admin.dto.AdminLiveDTO;
 import dev.muskrat.delivery.admin.dto.AdminStatsDTO;
 import dev.muskrat.delivery.admin.dto.AdminStatsResponseDTO;
 import dev.muskrat.delivery.admin.dto.FrontConfigurationDTO;
+import dev.muskrat.delivery.admin.dto.SqlEndpointStatsDTO;
 import dev.muskrat.delivery.admin.service.AdminService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -26,6 +29,38 @@ public class AdminController {
         return adminService.stats(adminStatsDTO);
     }
 
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void rebuildStats() {
+        adminService.rebuildStats();
+    }
+
+    @PostMapping("/orders/rebuild")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void rebuildOrders() {
+        adminService.rebuildOrders();
+    }
+
+    @PostMapping("/shops/locate")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void locateShops() {
+        adminService.locateShops();
+    }
+
+    @GetMapping("/live")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public AdminLiveDTO live(
+        @RequestParam(value = "minutes", required = false, defaultValue = "60") int minutes
+    ) {
+        return adminService.live(minutes);
+    }
+
+    @GetMapping("/sql")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public List<SqlEndpointStatsDTO> sqlStats() {
+        return adminService.sqlStats();
+    }
+
     @GetMapping("/config")
     public FrontConfigurationDTO config() {
         return frontConfigurationDTO;
@@ -0,0 +1,26 @@
+package dev.muskrat.delivery.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminLiveDTO {
+
+    private Integer minutes;
+
+    private LiveMetricsDTO total;
+
+    private List<LiveMetricsDTO> shops;
+
+    private List<LiveMetricsDTO> cities;
+
+    // Totals of every minute of the window, oldest first
+    private List<LiveMinuteDTO> series;
+}
@@ -0,0 +1,25 @@
+package dev.muskrat.delivery.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveMetricsDTO {
+
+    private Long id;
+
+    private String name;
+
+    private Long orders;
+
+    private Double revenue;
+
+    private Long cancelled;
+
+    private Double averageBasket;
+}
@@ -0,0 +1,23 @@
+package dev.muskrat.delivery.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveMinuteDTO {
+
+    private Instant minute;
+
+    private Long orders;
+
+    private Double revenue;
+
+    private Long cancelled;
+}
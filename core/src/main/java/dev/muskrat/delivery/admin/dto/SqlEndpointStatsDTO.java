@@ -0,0 +1,24 @@
+package dev.muskrat.delivery.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlEndpointStatsDTO {
+
+    // Method and mapping pattern, like "POST /order/page"
+    private String endpoint;
+
+    private Long requests;
+
+    private Long statements;
+
+    private Double average;
+
+    private Long max;
+}
@@ -1,9 +1,23 @@
 package dev.muskrat.delivery.admin.service;
 
+import dev.muskrat.delivery.admin.dto.AdminLiveDTO;
 import dev.muskrat.delivery.admin.dto.AdminStatsDTO;
 import dev.muskrat.delivery.admin.dto.AdminStatsResponseDTO;
+import dev.muskrat.delivery.admin.dto.SqlEndpointStatsDTO;
+
+import java.util.List;
 
 public interface AdminService {
 
     AdminStatsResponseDTO stats(AdminStatsDTO adminStatsDTO);
+
+    void rebuildStats();
+
+    void rebuildOrders();
+
+    void locateShops();
+
+    AdminLiveDTO live(int minutes);
+
+    List<SqlEndpointStatsDTO> sqlStats();
 }
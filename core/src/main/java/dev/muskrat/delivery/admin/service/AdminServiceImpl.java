@@ -1,29 +1,65 @@
 package dev.muskrat.delivery.admin.service;
 
+import dev.muskrat.delivery.admin.components.LiveOrderMetrics;
+import dev.muskrat.delivery.admin.components.SqlStatementStats;
+import dev.muskrat.delivery.admin.dto.AdminLiveDTO;
 import dev.muskrat.delivery.admin.dto.AdminStatsDTO;
 import dev.muskrat.delivery.admin.dto.AdminStatsResponseDTO;
-import dev.muskrat.delivery.order.dao.OrderRepository;
+import dev.muskrat.delivery.admin.dto.SqlEndpointStatsDTO;
+import dev.muskrat.delivery.order.service.OrderViewService;
 import dev.muskrat.delivery.shop.dto.ShopStatsResponseDTO;
+import dev.muskrat.delivery.shop.service.ShopHourlyStatsService;
+import dev.muskrat.delivery.shop.service.ShopService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class AdminServiceImpl implements AdminService {
 
-    private final OrderRepository orderRepository;
+    private final ShopHourlyStatsService shopHourlyStatsService;
+    private final ShopService shopService;
+    private final OrderViewService orderViewService;
+    private final LiveOrderMetrics liveOrderMetrics;
+    private final SqlStatementStats sqlStatementStats;
 
     @Override
     public AdminStatsResponseDTO stats(AdminStatsDTO adminStatsDTO) {
         Instant startDate = adminStatsDTO.getStartDate();
         Instant endDate = adminStatsDTO.getEndDate();
 
-        Double profit = orderRepository.getProfit(startDate, endDate);
+        Double profit = shopHourlyStatsService.getProfit(null, startDate, endDate);
 
         return AdminStatsResponseDTO.builder()
             .profit(profit)
             .build();
     }
+
+    @Override
+    public void rebuildStats() {
+        shopHourlyStatsService.rebuild();
+    }
+
+    @Override
+    public void rebuildOrders() {
+        orderViewService.rebuild();
+    }
+
+    @Override
+    public void locateShops() {
+        shopService.locate();
+    }
+
+    @Override
+    public AdminLiveDTO live(int minutes) {
+        return liveOrderMetrics.snapshot(minutes);
+    }
+
+    @Override
+    public List<SqlEndpointStatsDTO> sqlStats() {
+        return sqlStatementStats.snapshot();
+    }
 }
@@ -0,0 +1,30 @@
+package dev.muskrat.delivery.auth.dao;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Data
+@Entity
+@IdClass(JwtSessionId.class)
+@Table(name = "jwt_sessions", indexes = @Index(name = "idx_jwt_sessions_expires", columnList = "expires"))
+public class JwtSession {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "session_key")
+    private String key;
+
+    @Column(name = "access", length = 2047)
+    private String access;
+
+    @Column(name = "refresh", length = 2047)
+    private String refresh;
+
+    @Column(name = "expires")
+    private Instant expires;
+}
@@ -0,0 +1,16 @@
+package dev.muskrat.delivery.auth.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtSessionId implements Serializable {
+
+    private Long userId;
+    private String key;
+}
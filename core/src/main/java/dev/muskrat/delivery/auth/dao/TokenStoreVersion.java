@@ -0,0 +1,24 @@
+package dev.muskrat.delivery.auth.dao;
+
+import lombok.Data;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+// Single row bumped whenever a session is removed, nodes poll it to drop their near-caches
+@Data
+@Entity
+@Table(name = "token_store_version")
+public class TokenStoreVersion {
+
+    public static final Integer ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "version")
+    private Long version;
+}
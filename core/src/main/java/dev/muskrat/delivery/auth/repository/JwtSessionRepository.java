@@ -0,0 +1,41 @@
+package dev.muskrat.delivery.auth.repository;
+
+import dev.muskrat.delivery.auth.dao.JwtSession;
+import dev.muskrat.delivery.auth.dao.JwtSessionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JwtSessionRepository extends JpaRepository<JwtSession, JwtSessionId> {
+
+    List<JwtSession> findAllByUserIdAndExpiresAfter(Long userId, Instant now);
+
+    List<JwtSession> findAllByUserIdOrderByExpiresDesc(Long userId);
+
+    @Modifying
+    @Query("delete from JwtSession s where s.userId = :userId and s.key = :key")
+    int deleteByKey(@Param("userId") Long userId, @Param("key") String key);
+
+    @Modifying
+    @Query("delete from JwtSession s where s.userId = :userId and s.key in :keys")
+    int deleteByKeys(@Param("userId") Long userId, @Param("keys") Collection<String> keys);
+
+    @Modifying
+    @Query("delete from JwtSession s where s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from JwtSession s where s.userId = :userId and s.key <> :key")
+    int deleteExceptKey(@Param("userId") Long userId, @Param("key") String key);
+
+    @Modifying
+    @Query("delete from JwtSession s where s.expires <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,16 @@
+package dev.muskrat.delivery.auth.repository;
+
+import dev.muskrat.delivery.auth.dao.TokenStoreVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TokenStoreVersionRepository extends JpaRepository<TokenStoreVersion, Integer> {
+
+    @Modifying
+    @Query("update TokenStoreVersion v set v.version = v.version + 1 where v.id = :id")
+    int increment(@Param("id") Integer id);
+}
@@ -0,0 +1,65 @@
+package dev.muskrat.delivery.auth.security;
+
+import dev.muskrat.delivery.auth.security.jwt.JwtUser;
+import dev.muskrat.delivery.components.cache.ExpiringLruCache;
+import dev.muskrat.delivery.components.exception.EntityNotFoundException;
+import dev.muskrat.delivery.user.converter.UserToJwtIUserConverter;
+import dev.muskrat.delivery.user.dao.User;
+import dev.muskrat.delivery.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+
+/**
+ * Short lived principals loaded from the users table, so roles and status
+ * changed after a token was issued show up without a query per request.
+ * Services that change roles, status, email or the partner link must call
+ * {@link #invalidate}; the TTL bounds staleness on other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtUserCache {
+
+    private final UserRepository userRepository;
+    private final UserToJwtIUserConverter userToJwtIUserConverter;
+
+    @Value("${application.jwt.user-cache.max-size}")
+    private int maxSize;
+
+    @Value("${application.jwt.user-cache.ttl}")
+    private Duration ttl;
+
+    // Null when disabled, principals then come from the token claims alone
+    private ExpiringLruCache<Long, JwtUser> users;
+
+    @PostConstruct
+    protected void init() {
+        if (maxSize > 0)
+            users = new ExpiringLruCache<>(maxSize, ttl);
+    }
+
+    public boolean isEnabled() {
+        return users != null;
+    }
+
+    public JwtUser get(Long userId) {
+        JwtUser cached = users.get(userId);
+        if (cached != null)
+            return cached;
+
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new EntityNotFoundException("User with id " + userId + " not found"));
+
+        JwtUser jwtUser = userToJwtIUserConverter.convert(user);
+        users.put(userId, jwtUser);
+        return jwtUser;
+    }
+
+    public void invalidate(Long userId) {
+        if (users != null)
+            users.invalidate(userId);
+    }
+}
@@ -0,0 +1,96 @@
+package dev.muskrat.delivery.auth.security;
+
+import dev.muskrat.delivery.components.cache.LongLongMap;
+import dev.muskrat.delivery.components.exception.EntityNotFoundException;
+import dev.muskrat.delivery.order.dao.OrderRepository;
+import dev.muskrat.delivery.product.dao.ProductRepository;
+import dev.muskrat.delivery.shop.dao.ShopRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Who owns what, for the @PreAuthorize checks: order to shop, order to
+ * client, product to shop and shop to the owning partner's user id.
+ * <p>
+ * Entries are loaded on first use with a single id query and primed by the
+ * services on create, so a check is a couple of primitive map lookups
+ * instead of loading the order, shop, partner and user graph.
+ */
+@Component
+@RequiredArgsConstructor
+public class OwnershipIndex {
+
+    private final OrderRepository orderRepository;
+    private final ShopRepository shopRepository;
+    private final ProductRepository productRepository;
+
+    @Value("${application.security.ownership-index.max-size}")
+    private int maxSize;
+
+    private LongLongMap orderShops;
+    private LongLongMap orderClients;
+    private LongLongMap productShops;
+    private LongLongMap shopOwners;
+
+    @PostConstruct
+    protected void init() {
+        orderShops = new LongLongMap(maxSize);
+        orderClients = new LongLongMap(maxSize);
+        productShops = new LongLongMap(maxSize);
+        shopOwners = new LongLongMap(maxSize);
+    }
+
+    public long getShopOwner(Long shopId) {
+        return resolve(shopOwners, shopId, shopRepository::findOwnerIdById, "Shop");
+    }
+
+    public long getOrderShop(Long orderId) {
+        return resolve(orderShops, orderId, orderRepository::findShopIdById, "Order");
+    }
+
+    // 0 when the order has no registered client
+    public long getOrderClient(Long orderId) {
+        return resolve(orderClients, orderId, orderRepository::findClientIdById, "Order");
+    }
+
+    public long getProductShop(Long productId) {
+        return resolve(productShops, productId, productRepository::findShopIdById, "Product");
+    }
+
+    public void putShop(Long shopId, Long ownerId) {
+        shopOwners.put(shopId, ownerId);
+    }
+
+    public void putOrder(Long orderId, Long shopId, Long clientId) {
+        orderShops.put(orderId, shopId);
+        orderClients.put(orderId, clientId == null ? 0 : clientId);
+    }
+
+    public void putProduct(Long productId, Long shopId) {
+        productShops.put(productId, shopId);
+    }
+
+    public void removeShop(Long shopId) {
+        shopOwners.remove(shopId);
+    }
+
+    public void removeProduct(Long productId) {
+        productShops.remove(productId);
+    }
+
+    private static long resolve(LongLongMap index, Long id, Function<Long, Optional<Long>> loader, String entity) {
+        long cached = index.get(id);
+        if (cached != LongLongMap.NO_VALUE)
+            return cached;
+
+        long value = loader.apply(id)
+            .orElseThrow(() -> new EntityNotFoundException(entity + " with id " + id + " not found"));
+        index.put(id, value);
+        return value;
+    }
+}
@@ -0,0 +1,85 @@
+package dev.muskrat.delivery.auth.security;
+
+import dev.muskrat.delivery.components.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Runs BCrypt on the dedicated password hash pool. When every thread and
+ * queue slot is taken, or a hash waits longer than the timeout, the request
+ * fails with 503 instead of adding to the pile.
+ * <p>
+ * Admission is counted here rather than left to the pool, whose worker may
+ * not be back for the next task yet when the previous caller already got
+ * its result.
+ */
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashExecutor;
+    private final Duration timeout;
+    private final Semaphore permits;
+
+    public PasswordHasher(
+        BCryptPasswordEncoder passwordEncoder,
+        @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor passwordHashExecutor,
+        @Value("${application.security.password-hash.threads}") int threads,
+        @Value("${application.security.password-hash.queue-depth}") int queueDepth,
+        @Value("${application.security.password-hash.timeout}") Duration timeout
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.timeout = timeout;
+        this.permits = new Semaphore(threads + queueDepth);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T run(Callable<T> task) {
+        if (!permits.tryAcquire())
+            throw new ServiceOverloadedException("Too many password checks in progress");
+        try {
+            return await(task);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = passwordHashExecutor.submit(task);
+        } catch (TaskRejectedException ex) {
+            throw new ServiceOverloadedException("Too many password checks in progress");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new ServiceOverloadedException("Password check timed out");
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Password check interrupted");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException)
+                throw (RuntimeException) ex.getCause();
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
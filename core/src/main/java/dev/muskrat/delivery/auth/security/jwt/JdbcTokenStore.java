@@ -0,0 +1,215 @@
+package dev.muskrat.delivery.auth.security.jwt;
+
+import dev.muskrat.delivery.auth.dao.JwtSession;
+import dev.muskrat.delivery.auth.dao.JwtSessionId;
+import dev.muskrat.delivery.auth.dao.TokenStoreVersion;
+import dev.muskrat.delivery.auth.repository.JwtSessionRepository;
+import dev.muskrat.delivery.auth.repository.TokenStoreVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sessions persisted in the jwt_sessions table, so they survive restarts and
+ * are shared by every node.
+ * <p>
+ * Writes go to the table first and then to a local near-cache, which answers
+ * {@link #containsKey} without a query once a session has been seen. Every
+ * removal bumps the single token_store_version row in the same transaction;
+ * each node polls that row and drops its near-cache when the version moves,
+ * so a logout on one node reaches the others within the poll interval.
+ * Writes commit in their own transaction because the near-cache is updated
+ * at once and cannot be rolled back with a caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application.jwt.session.store", havingValue = "jdbc")
+public class JdbcTokenStore implements TokenStore {
+
+    private final JwtSessionRepository sessionRepository;
+    private final TokenStoreVersionRepository versionRepository;
+
+    private final ConcurrentMap<JwtSessionId, Session> nearCache = new ConcurrentHashMap<>();
+    private volatile long knownVersion;
+
+    @Value("${application.jwt.session.expired}")
+    private long sessionExpiredTime;
+
+    @Value("${application.jwt.session.max-per-user}")
+    private int maxSessionsPerUser;
+
+    @Value("${application.jwt.session.near-cache-size}")
+    private int nearCacheSize;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveToken(Long userId, JwtToken token) {
+        Instant expires = Instant.now().plusMillis(sessionExpiredTime);
+
+        JwtSession session = new JwtSession();
+        session.setUserId(userId);
+        session.setKey(token.getKey());
+        session.setAccess(token.getAccess());
+        session.setRefresh(token.getRefresh());
+        session.setExpires(expires);
+        sessionRepository.save(session);
+
+        cache(new JwtSessionId(userId, token.getKey()), new Session(copy(token), expires.toEpochMilli()));
+
+        // Over the limit the sessions refreshed least recently go first. A concurrent
+        // login of the same user may evict them too, so a bulk delete that tolerates
+        // rows already gone rather than deleting the loaded entities. Logins that do not
+        // see each other's rows can leave a few sessions over, the next one trims them
+        List<JwtSession> sessions = sessionRepository.findAllByUserIdOrderByExpiresDesc(userId);
+        if (sessions.size() > maxSessionsPerUser) {
+            List<String> evicted = new ArrayList<>();
+            for (JwtSession old : sessions.subList(maxSessionsPerUser, sessions.size())) {
+                evicted.add(old.getKey());
+                nearCache.remove(new JwtSessionId(userId, old.getKey()));
+            }
+            if (sessionRepository.deleteByKeys(userId, evicted) > 0)
+                bumpVersion();
+        }
+    }
+
+    @Override
+    public Set<JwtToken> findTokensByUserId(Long userId) {
+        Set<JwtToken> tokens = new HashSet<>();
+        for (JwtSession session : sessionRepository.findAllByUserIdAndExpiresAfter(userId, Instant.now()))
+            tokens.add(new JwtToken(session.getKey(), session.getAccess(), session.getRefresh()));
+        return tokens;
+    }
+
+    @Override
+    public Optional<JwtToken> readTokenByKey(Long userId, String key) {
+        Session session = find(userId, key);
+        return session == null ? Optional.empty() : Optional.of(copy(session.token));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void removeTokenByKey(Long userId, String key) {
+        nearCache.remove(new JwtSessionId(userId, key));
+        if (sessionRepository.deleteByKey(userId, key) > 0)
+            bumpVersion();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void clearTokensByUserId(Long userId) {
+        nearCache.keySet().removeIf(id -> id.getUserId().equals(userId));
+        if (sessionRepository.deleteByUserId(userId) > 0)
+            bumpVersion();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void clearExceptByKey(Long userId, String key) {
+        nearCache.keySet().removeIf(id -> id.getUserId().equals(userId) && !id.getKey().equals(key));
+        if (sessionRepository.deleteExceptKey(userId, key) > 0)
+            bumpVersion();
+    }
+
+    @Override
+    public boolean containsKey(Long userId, String key) {
+        return find(userId, key) != null;
+    }
+
+    @Scheduled(fixedDelayString = "${application.jwt.session.poll-interval}")
+    public void poll() {
+        long version = versionRepository.findById(TokenStoreVersion.ID)
+            .map(TokenStoreVersion::getVersion)
+            .orElse(0L);
+
+        if (version != knownVersion) {
+            knownVersion = version;
+            nearCache.clear();
+        }
+    }
+
+    // Expired sessions never need a version bump, lookups already reject them
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Scheduled(fixedDelayString = "${application.jwt.session.sweep-interval}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        sessionRepository.deleteExpired(Instant.ofEpochMilli(now));
+        nearCache.values().removeIf(session -> session.isExpired(now));
+    }
+
+    private Session find(Long userId, String key) {
+        if (userId == null || key == null)
+            return null;
+
+        long now = System.currentTimeMillis();
+        JwtSessionId id = new JwtSessionId(userId, key);
+
+        // An expired entry may have been refreshed on another node, which moves
+        // the expiry without bumping the version, so the table has the last word
+        Session session = nearCache.get(id);
+        if (session != null) {
+            if (!session.isExpired(now))
+                return session;
+            nearCache.remove(id, session);
+        }
+
+        long version = knownVersion;
+        Optional<JwtSession> stored = sessionRepository.findById(id);
+        if (stored.isEmpty() || stored.get().getExpires().toEpochMilli() <= now)
+            return null;
+
+        JwtSession found = stored.get();
+        session = new Session(
+            new JwtToken(found.getKey(), found.getAccess(), found.getRefresh()),
+            found.getExpires().toEpochMilli()
+        );
+
+        // A poll that cleared the cache while we were reading must not be undone
+        cache(id, session);
+        if (version != knownVersion)
+            nearCache.remove(id, session);
+        return session;
+    }
+
+    private void cache(JwtSessionId id, Session session) {
+        if (nearCache.size() < nearCacheSize || nearCache.containsKey(id))
+            nearCache.put(id, session);
+    }
+
+    private void bumpVersion() {
+        if (versionRepository.increment(TokenStoreVersion.ID) > 0)
+            return;
+
+        TokenStoreVersion version = new TokenStoreVersion();
+        version.setId(TokenStoreVersion.ID);
+        version.setVersion(1L);
+        versionRepository.save(version);
+    }
+
+    private static JwtToken copy(JwtToken token) {
+        return new JwtToken(token.getKey(), token.getAccess(), token.getRefresh());
+    }
+
+    private static class Session {
+
+        private final JwtToken token;
+        private final long expiresAt;
+
+        private Session(JwtToken token, long expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt - now <= 0;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package dev.muskrat.delivery.auth.security.jwt;
 
 import dev.muskrat.delivery.auth.dao.Role;
+import dev.muskrat.delivery.auth.security.JwtUserCache;
+import dev.muskrat.delivery.components.cache.ExpiringLruCache;
 import dev.muskrat.delivery.components.exception.JwtAuthenticationException;
 import dev.muskrat.delivery.components.exception.JwtTokenExpiredException;
+import dev.muskrat.delivery.user.converter.ClaimsToJwtUserConverter;
 import dev.muskrat.delivery.user.dao.User;
 import io.jsonwebtoken.*;
 import lombok.RequiredArgsConstructor;
@@ -12,12 +15,12 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -27,8 +30,8 @@ import java.util.stream.Collectors;
 public class JwtTokenProvider implements AuthenticationProvider {
 
     private final TokenStore tokenStore;
-    private final UserDetailsService userDetailsService;
-    private final JwtPasswordEncoder jwtPasswordEncoder;
+    private final JwtUserCache jwtUserCache;
+    private final ClaimsToJwtUserConverter claimsToJwtUserConverter;
 
     @Value("${application.jwt.token.secret}")
     private String secret;
@@ -36,14 +39,65 @@ public class JwtTokenProvider implements AuthenticationProvider {
     @Value("${application.jwt.token.expired}")
     private long expiredTime;
 
+    @Value("${application.jwt.token.verified-cache.max-size}")
+    private int verifiedCacheSize;
+
+    @Value("${application.jwt.token.verified-cache.ttl}")
+    private Duration verifiedCacheTtl;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Tokens whose signature was already checked, null when disabled
+    private ExpiringLruCache<String, Claims> verifiedTokens;
+
     @PostConstruct
     protected void init() {
         secret = Base64.getEncoder().encodeToString(secret.getBytes());
+
+        if (verifiedCacheSize > 0)
+            verifiedTokens = new ExpiringLruCache<>(verifiedCacheSize, verifiedCacheTtl);
+    }
+
+    /**
+     * Parses the token and checks its signature, at most once per token while
+     * it stays in the verified cache.
+     *
+     * @return verified claims or null when the token is expired
+     * @throws JwtAuthenticationException when the token is malformed or not signed by us
+     */
+    public Claims verify(String token) {
+        if (verifiedTokens != null) {
+            Claims cached = verifiedTokens.get(token);
+            if (cached != null)
+                return isExpired(cached) ? null : cached;
+        }
+
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                .setSigningKey(secret)
+                .parseClaimsJws(token)
+                .getBody();
+        } catch (ExpiredJwtException e) {
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new JwtAuthenticationException("JWT token is expired or invalid");
+        }
+
+        if (verifiedTokens != null)
+            verifiedTokens.put(token, claims);
+        return claims;
     }
 
     public Authentication getAuthentication(String token) {
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(getUsername(token));
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+        Claims claims = verify(token);
+        return claims == null ? null : getAuthentication(claims);
+    }
+
+    public Authentication getAuthentication(Claims claims) {
+        JwtUser jwtUser = jwtUserCache.isEnabled() ?
+            jwtUserCache.get(claims.get("id", Long.class)) : claimsToJwtUserConverter.convert(claims);
+        return new UsernamePasswordAuthenticationToken(jwtUser, "", jwtUser.getAuthorities());
     }
 
     public JwtToken generateJwtToken(User user) {
@@ -60,15 +114,13 @@ public class JwtTokenProvider implements AuthenticationProvider {
             .findFirst()
             .orElseThrow(() -> new RuntimeException("Refresh token is not valid"));
 
-        return generateJwtToken(user, token);
+        // Stored tokens are shared with request threads, reissue into a fresh instance
+        return generateJwtToken(user, new JwtToken(token.getKey(), null, null));
     }
 
     public Long getId(String access) {
-        return Jwts.parser()
-            .setSigningKey(secret)
-            .parseClaimsJws(access)
-            .getBody()
-            .get("id", Long.class);
+        Claims claims = verify(access);
+        return claims == null ? null : claims.get("id", Long.class);
     }
 
     public String resolveToken(HttpServletRequest req) {
@@ -83,62 +135,34 @@ public class JwtTokenProvider implements AuthenticationProvider {
     }
 
     public String getUsername(String access) {
-        return Jwts.parser()
-            .setClock(() -> Date.from(Instant.now()))
-            .setSigningKey(secret)
-            .parseClaimsJws(access)
-            .getBody()
-            .getSubject();
+        Claims claims = verify(access);
+        return claims == null ? null : claims.getSubject();
     }
 
-    // UGLY CODE
     public boolean validateAccessToken(String key, String access) {
+        Claims claims = verify(access);
+        return claims != null && validateAccessToken(key, claims);
+    }
 
-            Jws<Claims> claims;
-
-            try {
-                claims = Jwts.parser()
-                    .setClock(() -> Date.from(Instant.now()))
-                    .setSigningKey(secret)
-                    .parseClaimsJws(access);
-            } catch (ExpiredJwtException e) {
-                return false;
-            }
-
-        try {
-
-            Long userId = getId(access);
-            Claims body = claims.getBody();
-            Date expiration = body.getExpiration();
-
-            return expiration != null &&
-                !claims.getBody().getExpiration().before(new Date()) &&
-                tokenStore.containsKey(userId, key);
-
-        } catch (JwtException | IllegalArgumentException e) {
-            throw new JwtAuthenticationException("JWT token is expired or invalid");
-        }
+    // Access tokens always carry an expiration, refresh tokens never do
+    public boolean validateAccessToken(String key, Claims claims) {
+        return claims.getExpiration() != null &&
+            !isExpired(claims) &&
+            tokenStore.containsKey(claims.get("id", Long.class), key);
     }
 
-    // UGLY CODE
     public boolean validateRefreshToken(String key, String refresh) {
-        try {
-
-            try {
-                Jwts.parser()
-                    .setClock(() -> Date.from(Instant.now()))
-                    .setSigningKey(secret)
-                    .parseClaimsJws(refresh);
-            } catch (ExpiredJwtException e) {
-                return false;
-            }
+        Claims claims = verify(refresh);
+        return claims != null && validateRefreshToken(key, claims);
+    }
 
-            Long userId = getId(refresh);
-            return tokenStore.containsKey(userId, key);
+    public boolean validateRefreshToken(String key, Claims claims) {
+        return tokenStore.containsKey(claims.get("id", Long.class), key);
+    }
 
-        } catch (JwtException | IllegalArgumentException e) {
-            throw new JwtAuthenticationException("JWT token is expired or invalid");
-        }
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
     }
 
     private JwtToken generateJwtToken(User user, JwtToken token) {
@@ -161,7 +185,7 @@ public class JwtTokenProvider implements AuthenticationProvider {
             .compact();
 
         if (token.getKey() == null)
-            token.setKey(generateKey(refresh));
+            token.setKey(generateKey());
 
         token.setAccess(access);
         token.setRefresh(refresh);
@@ -171,9 +195,11 @@ public class JwtTokenProvider implements AuthenticationProvider {
         return token;
     }
 
-    private String generateKey(String refresh) {
-        return jwtPasswordEncoder.passwordEncoder()
-            .encode(refresh.substring(14, 26) + "-SUPER-SALT-" + System.currentTimeMillis());
+    // 256 random bits, the key only has to be unguessable and unique
+    private String generateKey() {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
     private String generateRefreshToken(User user) {
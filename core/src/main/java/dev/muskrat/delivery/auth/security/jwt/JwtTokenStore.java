@@ -1,42 +1,82 @@
 package dev.muskrat.delivery.auth.security.jwt;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Sessions of every user, keyed by user id and then by session key.
+ * <p>
+ * The per-user map is immutable and replaced on every write inside
+ * {@link ConcurrentMap#compute}, so writes for one user are serialized while
+ * lookups stay lock-free and O(1). A session expires when it has not been
+ * issued or refreshed for the session lifetime; expired sessions are ignored
+ * by lookups and evicted by {@link #sweep()}.
+ */
 @Component
+@ConditionalOnProperty(name = "application.jwt.session.store", havingValue = "memory", matchIfMissing = true)
 public class JwtTokenStore implements TokenStore {
 
-    private Map<Long, Set<JwtToken>> store;
+    private final ConcurrentMap<Long, Map<String, Session>> store = new ConcurrentHashMap<>();
 
-    public JwtTokenStore() {
-        store = new HashMap<>();
-    }
+    @Value("${application.jwt.session.expired}")
+    private long sessionExpiredTime;
+
+    @Value("${application.jwt.session.max-per-user}")
+    private int maxSessionsPerUser;
 
     @Override
     public void saveToken(Long userId, JwtToken token) {
-        Set<JwtToken> jwts = findTokensByUserId(userId);
-        jwts.add(token);
-        store.put(userId, jwts);
+        Session session = new Session(token, System.currentTimeMillis() + sessionExpiredTime);
+        store.compute(userId, (id, sessions) -> {
+            Map<String, Session> updated = sessions == null ? new HashMap<>() : new HashMap<>(sessions);
+            updated.put(token.getKey(), session);
+
+            // Over the limit the sessions refreshed least recently go first
+            while (updated.size() > maxSessionsPerUser) {
+                Session oldest = Collections.min(updated.values(), Comparator.comparingLong(s -> s.expiresAt));
+                updated.remove(oldest.token.getKey());
+            }
+            return Collections.unmodifiableMap(updated);
+        });
     }
 
     @Override
     public Set<JwtToken> findTokensByUserId(Long userId) {
-        return store.getOrDefault(userId, new HashSet<>());
+        Map<String, Session> sessions = store.get(userId);
+        if (sessions == null)
+            return new HashSet<>();
+
+        long now = System.currentTimeMillis();
+        Set<JwtToken> tokens = new HashSet<>();
+        for (Session session : sessions.values()) {
+            if (!session.isExpired(now))
+                tokens.add(session.token);
+        }
+        return tokens;
     }
 
     @Override
     public Optional<JwtToken> readTokenByKey(Long userId, String key) {
-        Set<JwtToken> jwts = findTokensByUserId(userId);
-        return jwts.stream()
-            .filter(t -> t.getKey().equals(key))
-            .findFirst();
+        Session session = find(userId, key);
+        return session == null ? Optional.empty() : Optional.of(session.token);
     }
 
     @Override
     public void removeTokenByKey(Long userId, String key) {
-        Set<JwtToken> jwts = findTokensByUserId(userId);
-        jwts.removeIf(p -> p.getKey().equals(key));
+        store.computeIfPresent(userId, (id, sessions) -> {
+            if (!sessions.containsKey(key))
+                return sessions;
+
+            Map<String, Session> updated = new HashMap<>(sessions);
+            updated.remove(key);
+            return updated.isEmpty() ? null : Collections.unmodifiableMap(updated);
+        });
     }
 
     @Override
@@ -46,22 +86,62 @@ public class JwtTokenStore implements TokenStore {
 
     @Override
     public void clearExceptByKey(Long userId, String key) {
-        Set<JwtToken> jwts = findTokensByUserId(userId);
-        jwts.removeIf(t -> !t.getKey().equals(key));
+        store.computeIfPresent(userId, (id, sessions) -> {
+            Session kept = sessions.get(key);
+            return kept == null ? null : Collections.singletonMap(key, kept);
+        });
     }
 
     @Override
     public boolean containsKey(Long userId, String key) {
-        Set<JwtToken> jwts = findTokensByUserId(userId);
-        return jwts.stream()
-            .filter(t -> t.getKey().equals(key))
-            .findFirst()
-            .isPresent();
+        return find(userId, key) != null;
     }
 
-    /*@Override
-    public JwtToken updateToken(Long userId, String key, String access) {
-        return null;
-    }*/
-}
+    @Scheduled(fixedDelayString = "${application.jwt.session.sweep-interval}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Long userId : store.keySet()) {
+            store.computeIfPresent(userId, (id, sessions) -> {
+                Map<String, Session> alive = new HashMap<>(sessions);
+                alive.values().removeIf(session -> session.isExpired(now));
+
+                if (alive.isEmpty())
+                    return null;
+                return alive.size() == sessions.size() ? sessions : Collections.unmodifiableMap(alive);
+            });
+        }
+    }
+
+    public int size() {
+        return store.values().stream()
+            .mapToInt(Map::size)
+            .sum();
+    }
 
+    private Session find(Long userId, String key) {
+        if (userId == null || key == null)
+            return null;
+
+        Map<String, Session> sessions = store.get(userId);
+        if (sessions == null)
+            return null;
+
+        Session session = sessions.get(key);
+        return session == null || session.isExpired(System.currentTimeMillis()) ? null : session;
+    }
+
+    private static class Session {
+
+        private final JwtToken token;
+        private final long expiresAt;
+
+        private Session(JwtToken token, long expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt - now <= 0;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package dev.muskrat.delivery.auth.security.jwt.filter;
 
 import dev.muskrat.delivery.auth.security.jwt.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -31,12 +32,13 @@ public class JwtTokenFilter extends GenericFilterBean {
         String requestURI = httpRequest.getRequestURI();
         boolean isRefresh = requestURI.endsWith("/refresh");
 
-        if (access != null) {
+        Claims claims = access == null ? null : jwtTokenProvider.verify(access);
+        if (claims != null) {
             boolean isValid = isRefresh ?
-                jwtTokenProvider.validateRefreshToken(key, access) : jwtTokenProvider.validateAccessToken(key, access);
+                jwtTokenProvider.validateRefreshToken(key, claims) : jwtTokenProvider.validateAccessToken(key, claims);
 
             if (isValid) {
-                Authentication authentication = jwtTokenProvider.getAuthentication(access);
+                Authentication authentication = jwtTokenProvider.getAuthentication(claims);
 
                 if (authentication != null)
                     SecurityContextHolder.getContext().setAuthentication(authentication);
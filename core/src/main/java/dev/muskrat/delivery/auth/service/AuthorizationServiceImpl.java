@@ -5,6 +5,7 @@ import dev.muskrat.delivery.auth.dto.UserLoginDTO;
 import dev.muskrat.delivery.auth.dto.UserLoginResponseDTO;
 import dev.muskrat.delivery.auth.dto.UserRegisterDTO;
 import dev.muskrat.delivery.auth.dto.UserRegisterResponseDTO;
+import dev.muskrat.delivery.auth.security.PasswordHasher;
 import dev.muskrat.delivery.auth.security.jwt.JwtToken;
 import dev.muskrat.delivery.auth.security.jwt.JwtTokenProvider;
 import dev.muskrat.delivery.auth.security.jwt.JwtUser;
@@ -23,7 +24,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -38,7 +38,7 @@ public class AuthorizationServiceImpl implements AuthorizationService {
     private final AuthenticationManager authenticationManager;
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtAuthorizationToUserConverter jwtAuthorizationToUserConverter;
 
     @Override
@@ -93,7 +93,7 @@ public class AuthorizationServiceImpl implements AuthorizationService {
                 throw new AccessDeniedException("Password or username not valid");
             User user = byUsername.get();
 
-            if (!bCryptPasswordEncoder.matches(password, user.getPassword()))
+            if (!passwordHasher.matches(password, user.getPassword()))
                 throw new AccessDeniedException("Password or username not valid");
 
             Authentication authenticate = authenticationManager
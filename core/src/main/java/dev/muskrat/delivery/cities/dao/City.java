@@ -17,7 +17,7 @@ import java.util.List;
 public class City {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled-sequence")
     private Long id;
 
     @Column(name = "name")
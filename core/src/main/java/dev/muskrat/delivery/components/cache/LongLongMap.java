@@ -0,0 +1,181 @@
+package dev.muskrat.delivery.components.cache;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open addressing map of non-zero long keys to long values, stored in two
+ * primitive arrays without boxing.
+ * <p>
+ * Writes take the write lock. Reads probe optimistically and only fall back
+ * to the read lock when a write raced them, so lookups of a read-mostly map
+ * never block each other. Deletes shift the following entries back instead
+ * of leaving tombstones. Once {@code maxSize} entries are reached the map is
+ * cleared, which suits caches that can reload on a miss.
+ */
+public class LongLongMap {
+
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final StampedLock lock = new StampedLock();
+    private final int maxSize;
+
+    private Table table = new Table(INITIAL_CAPACITY);
+    private int size;
+
+    public LongLongMap(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    // Value of the key or NO_VALUE
+    public long get(long key) {
+        // 0 marks empty slots, it would match the first one it probes
+        if (key == 0)
+            return NO_VALUE;
+
+        long stamp = lock.tryOptimisticRead();
+        long value = table.find(key);
+        if (lock.validate(stamp))
+            return value;
+
+        stamp = lock.readLock();
+        try {
+            return table.find(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(long key, long value) {
+        if (key == 0)
+            throw new IllegalArgumentException("Key must not be 0");
+
+        long stamp = lock.writeLock();
+        try {
+            int index = table.indexOf(key);
+            if (index >= 0) {
+                table.values[index] = value;
+                return;
+            }
+
+            if (size >= maxSize) {
+                table = new Table(INITIAL_CAPACITY);
+                size = 0;
+            } else if ((size + 1) * 2 > table.keys.length) {
+                table = table.resize(table.keys.length * 2);
+            }
+            table.insert(key, value);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            if (table.delete(key))
+                size--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(INITIAL_CAPACITY);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static class Table {
+
+        private final long[] keys;
+        private final long[] values;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        // Bounded by the capacity, so a torn optimistic read cannot loop forever
+        private long find(long key) {
+            int index = slot(key, mask);
+            for (int probe = 0; probe < keys.length; probe++) {
+                long current = keys[index];
+                if (current == key)
+                    return values[index];
+                if (current == 0)
+                    return NO_VALUE;
+                index = (index + 1) & mask;
+            }
+            return NO_VALUE;
+        }
+
+        private int indexOf(long key) {
+            int index = slot(key, mask);
+            while (keys[index] != 0) {
+                if (keys[index] == key)
+                    return index;
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void insert(long key, long value) {
+            int index = slot(key, mask);
+            while (keys[index] != 0)
+                index = (index + 1) & mask;
+            keys[index] = key;
+            values[index] = value;
+        }
+
+        private boolean delete(long key) {
+            int hole = indexOf(key);
+            if (hole < 0)
+                return false;
+
+            keys[hole] = 0;
+            for (int index = (hole + 1) & mask; keys[index] != 0; index = (index + 1) & mask) {
+                int home = slot(keys[index], mask);
+                boolean between = hole <= index ? hole < home && home <= index : hole < home || home <= index;
+                if (!between) {
+                    keys[hole] = keys[index];
+                    values[hole] = values[index];
+                    keys[index] = 0;
+                    hole = index;
+                }
+            }
+            return true;
+        }
+
+        private Table resize(int capacity) {
+            Table resized = new Table(capacity);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0)
+                    resized.insert(keys[i], values[i]);
+            }
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package dev.muskrat.delivery.components.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Lets concurrent callers asking for the same key share one in-flight call.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder shared = new LongAdder();
+
+    public CompletableFuture<V> execute(K key, Function<K, CompletableFuture<V>> call) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, created);
+        if (existing != null) {
+            shared.increment();
+            return existing;
+        }
+
+        CompletableFuture<V> result;
+        try {
+            result = call.apply(key);
+        } catch (RuntimeException ex) {
+            result = CompletableFuture.failedFuture(ex);
+        }
+
+        result.whenComplete((value, ex) -> {
+            calls.remove(key, created);
+            if (ex != null)
+                created.completeExceptionally(ex);
+            else
+                created.complete(value);
+        });
+        return created;
+    }
+
+    public long getShared() {
+        return shared.sum();
+    }
+}
@@ -0,0 +1,14 @@
+@GenericGenerator(
+    name = "pooled-sequence",
+    strategy = "enhanced-sequence",
+    parameters = {
+        @Parameter(name = "prefer_sequence_per_entity", value = "true"),
+        @Parameter(name = "sequence_per_entity_suffix", value = "_seq"),
+        @Parameter(name = "optimizer", value = "pooled-lo"),
+        @Parameter(name = "increment_size", value = "50")
+    }
+)
+package dev.muskrat.delivery.components.dao;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
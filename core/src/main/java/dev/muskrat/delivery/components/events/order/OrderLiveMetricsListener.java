@@ -0,0 +1,58 @@
+package dev.muskrat.delivery.components.events.order;
+
+import dev.muskrat.delivery.admin.components.LiveOrderMetrics;
+import dev.muskrat.delivery.cities.dao.City;
+import dev.muskrat.delivery.order.dao.Order;
+import dev.muskrat.delivery.shop.dao.Shop;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+// After commit, so rolled back orders never show up on the dashboard
+@Component
+@RequiredArgsConstructor
+public class OrderLiveMetricsListener {
+
+    private final LiveOrderMetrics liveOrderMetrics;
+
+    @Value("${application.order.cancelled-status}")
+    private Integer cancelledStatus;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void orderCreated(OrderCreateEvent event) {
+        Order order = event.getOrder();
+        Shop shop = order.getShop();
+        City city = order.getCity();
+        liveOrderMetrics.orderCreated(
+            shop == null ? null : shop.getId(), shop == null ? null : shop.getName(),
+            city == null ? null : city.getId(), city == null ? null : city.getName(),
+            order.getCost()
+        );
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void orderUpdated(OrderStatusUpdateEvent event) {
+        Order order = event.getOrder();
+        Shop shop = order.getShop();
+        City city = order.getCity();
+        Long shopId = shop == null ? null : shop.getId();
+        String shopName = shop == null ? null : shop.getName();
+        Long cityId = city == null ? null : city.getId();
+        String cityName = city == null ? null : city.getName();
+
+        if (cancelledStatus.equals(order.getStatus()) && !cancelledStatus.equals(event.getPreviousStatus()))
+            liveOrderMetrics.orderCancelled(shopId, shopName, cityId, cityName);
+
+        double delta = value(order.getCost()) - value(event.getPreviousCost());
+        if (delta != 0 && !Objects.equals(order.getCost(), event.getPreviousCost()))
+            liveOrderMetrics.revenueChanged(shopId, shopName, cityId, cityName, delta);
+    }
+
+    private static double value(Double cost) {
+        return cost == null ? 0 : cost;
+    }
+}
@@ -0,0 +1,23 @@
+package dev.muskrat.delivery.components.events.order;
+
+import dev.muskrat.delivery.shop.service.ShopHourlyStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class OrderStatsListener {
+
+    private final ShopHourlyStatsService shopHourlyStatsService;
+
+    @EventListener
+    public void orderCreated(OrderCreateEvent event) {
+        shopHourlyStatsService.add(event.getOrder());
+    }
+
+    @EventListener
+    public void orderUpdated(OrderStatusUpdateEvent event) {
+        shopHourlyStatsService.update(event.getOrder(), event.getPreviousStatus(), event.getPreviousCost());
+    }
+}
@@ -9,8 +9,16 @@ public class OrderStatusUpdateEvent extends ApplicationEvent {
     @Getter
     private final Order order;
 
-    public OrderStatusUpdateEvent(Object source, Order order) {
+    @Getter
+    private final Integer previousStatus;
+
+    @Getter
+    private final Double previousCost;
+
+    public OrderStatusUpdateEvent(Object source, Order order, Integer previousStatus, Double previousCost) {
         super(source);
         this.order = order;
+        this.previousStatus = previousStatus;
+        this.previousCost = previousCost;
     }
 }
@@ -0,0 +1,25 @@
+package dev.muskrat.delivery.components.events.order;
+
+import dev.muskrat.delivery.order.service.OrderViewService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Before commit, so the row sees the order as it is saved and commits with it
+@Component
+@RequiredArgsConstructor
+public class OrderViewListener {
+
+    private final OrderViewService orderViewService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void orderCreated(OrderCreateEvent event) {
+        orderViewService.save(event.getOrder());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void orderUpdated(OrderStatusUpdateEvent event) {
+        orderViewService.save(event.getOrder());
+    }
+}
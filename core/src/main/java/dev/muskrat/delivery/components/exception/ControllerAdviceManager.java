@@ -125,6 +125,34 @@ public class ControllerAdviceManager extends ResponseEntityExceptionHandler {
             .body(jwtAccessDeniedExceptionDTO);
     }
 
+    // Shed load, the client should retry shortly instead of counting it as a failure
+    @ExceptionHandler(value = {ServiceOverloadedException.class})
+    public ResponseEntity<Object> commence(ServiceOverloadedException ex) {
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(exceptionDTO(ex));
+    }
+
+    // The geocoder is down or saturated, the address itself may be fine
+    @ExceptionHandler(value = {MapApiUnavailableException.class})
+    public ResponseEntity<Object> commence(MapApiUnavailableException ex) {
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(exceptionDTO(ex));
+    }
+
+    // The catch-all below would answer 409, a cursor the server never issued is the client's fault
+    @ExceptionHandler(value = {PageCursorParseException.class})
+    public ResponseEntity<Object> commence(PageCursorParseException ex) {
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(exceptionDTO(ex));
+    }
+
     @ExceptionHandler(value = {RuntimeException.class})
     public ResponseEntity<Object> commence(HttpServletResponse response, RuntimeException ex) {
 
@@ -148,4 +176,14 @@ public class ControllerAdviceManager extends ResponseEntityExceptionHandler {
             .contentType(MediaType.APPLICATION_JSON)
             .body(exceptionDTO);
     }
+
+    private RuntimeExceptionDTO exceptionDTO(RuntimeException ex) {
+        RuntimeExceptionDTO.RuntimeExceptionDTOBuilder builder = RuntimeExceptionDTO.builder()
+            .message(ex.getMessage());
+        Arrays.stream(ex.getStackTrace())
+            .filter(trace -> trace.getClassName().contains("dev.muskrat"))
+            .findFirst()
+            .ifPresent(trace -> builder.clazz(trace.getClassName()).method(trace.getMethodName()));
+        return builder.build();
+    }
 }
@@ -0,0 +1,12 @@
+package dev.muskrat.delivery.components.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE, reason = "Geocoder unavailable")
+public class MapApiUnavailableException extends LocationParseException {
+
+    public MapApiUnavailableException(String message) {
+        super(message);
+    }
+}
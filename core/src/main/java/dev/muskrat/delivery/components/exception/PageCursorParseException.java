@@ -0,0 +1,12 @@
+package dev.muskrat.delivery.components.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "Page cursor not valid")
+public class PageCursorParseException extends RuntimeException {
+
+    public PageCursorParseException(String message) {
+        super(message);
+    }
+}
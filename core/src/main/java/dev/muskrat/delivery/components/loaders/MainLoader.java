@@ -1,6 +1,7 @@
 package dev.muskrat.delivery.components.loaders;
 
 import dev.muskrat.delivery.DemoData;
+import dev.muskrat.delivery.map.components.RegionIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
@@ -12,10 +13,12 @@ public class MainLoader {
 
     private final SecureLoader secureLoader;
     private final DemoData demoData;
+    private final RegionIndex regionIndex;
 
     @EventListener
     public void load(ApplicationReadyEvent event) {
         secureLoader.load();
         demoData.load();
+        regionIndex.rebuild();
     }
 }
@@ -0,0 +1,57 @@
+package dev.muskrat.delivery.components.pagination;
+
+import dev.muskrat.delivery.components.exception.PageCursorParseException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of the last row returned by a keyset page. Clients get it back as an
+ * opaque string and send it unchanged to continue from that row; an empty string
+ * starts from the beginning.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private final Instant created;
+    private final Long id;
+
+    public PageCursor(Long id) {
+        this(null, id);
+    }
+
+    public String encode() {
+        String value = created == null ? "" : created.getEpochSecond() + "." + created.getNano();
+        value += ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return new PageCursor(null, null);
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            String created = value.substring(0, separator);
+            Long id = Long.valueOf(value.substring(separator + 1));
+
+            if (created.isEmpty())
+                return new PageCursor(id);
+
+            int dot = created.indexOf('.');
+            Instant instant = Instant.ofEpochSecond(
+                Long.parseLong(created.substring(0, dot)),
+                Long.parseLong(created.substring(dot + 1))
+            );
+            return new PageCursor(instant, id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new PageCursorParseException("Page cursor " + cursor + " not valid");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package dev.muskrat.delivery.components.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of concurrent calls; callers wait at most maxWait for a slot.
+ */
+public class Bulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(int maxConcurrent, Duration maxWait) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public boolean tryAcquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired)
+            rejected.increment();
+        return acquired;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getAvailable() {
+        return permits.availablePermits();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,102 @@
+package dev.muskrat.delivery.components.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opens after a run of consecutive failures, rejects calls while open and
+ * lets a single probe call through once the open period is over. The probe
+ * closes the breaker on success and opens it again on failure.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile long openedAt;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder halfOpened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED)
+            return true;
+
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN))
+                halfOpened.increment();
+        }
+
+        if (probing.compareAndSet(false, true))
+            return true;
+        rejected.increment();
+        return false;
+    }
+
+    public void onSuccess() {
+        failures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            probing.set(false);
+            closed.increment();
+        }
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+            return;
+        }
+        if (failures.incrementAndGet() >= failureThreshold)
+            open(State.CLOSED);
+    }
+
+    private void open(State from) {
+        openedAt = System.nanoTime();
+        if (state.compareAndSet(from, State.OPEN)) {
+            probing.set(false);
+            opened.increment();
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public long getOpened() {
+        return opened.sum();
+    }
+
+    public long getHalfOpened() {
+        return halfOpened.sum();
+    }
+
+    public long getClosed() {
+        return closed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
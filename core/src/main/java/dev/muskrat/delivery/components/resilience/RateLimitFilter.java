@@ -0,0 +1,239 @@
+package dev.muskrat.delivery.components.resilience;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.muskrat.delivery.auth.security.jwt.JwtTokenProvider;
+import dev.muskrat.delivery.components.exception.JwtAuthenticationException;
+import dev.muskrat.delivery.components.exception.dto.RuntimeExceptionDTO;
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the rate limit rules of a route before the request reaches the
+ * controller and answers 429 with Retry-After when any bucket is empty.
+ * Routes are matched by the controller method Spring MVC dispatches the
+ * request to, so every path it accepts for a route (/auth/login/ as well as
+ * /auth/login) shares the route's buckets.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ObjectMapper objectMapper;
+    private final RequestMappingHandlerMapping handlerMapping;
+
+    private final Map<Method, Route> routes = new HashMap<>();
+
+    public RateLimitFilter(
+        RateLimiter rateLimiter,
+        JwtTokenProvider jwtTokenProvider,
+        ObjectMapper objectMapper,
+        RequestMappingHandlerMapping handlerMapping
+    ) {
+        this.rateLimiter = rateLimiter;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.objectMapper = objectMapper;
+        this.handlerMapping = handlerMapping;
+    }
+
+    public RateLimitFilter route(String method, String path, List<RateLimitRule> rules) {
+        if (rules.isEmpty())
+            return this;
+
+        RequestMethod requestMethod = RequestMethod.valueOf(method);
+        Route route = new Route(method + " " + path, rules);
+        handlerMapping.getHandlerMethods().forEach((info, handler) -> {
+            if (info.getPatternsCondition().getPatterns().contains(path)
+                && info.getMethodsCondition().getMethods().contains(requestMethod))
+                routes.put(handler.getMethod(), route);
+        });
+        if (!routes.containsValue(route))
+            throw new IllegalStateException("Rate limited route " + route.name + " has no controller method");
+        return this;
+    }
+
+    @Scheduled(fixedDelayString = "${application.rate-limit.sweep-interval}")
+    public void sweep() {
+        rateLimiter.sweep();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+
+        Route route = route(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CachedBodyRequest cached = null;
+        long wait = 0;
+        for (RateLimitRule rule : route.rules) {
+            String key;
+            if (rule.getKey() == RateLimitRule.Key.EMAIL) {
+                if (cached == null)
+                    cached = new CachedBodyRequest(request);
+                key = email(cached.body);
+            } else if (rule.getKey() == RateLimitRule.Key.USER) {
+                key = userId(request);
+            } else {
+                key = request.getRemoteAddr();
+            }
+
+            // Without the key (anonymous user, unreadable body) the ip rules still apply
+            if (key == null)
+                continue;
+
+            String bucket = route.name + " " + rule.getKey() + " " + key;
+            wait = Math.max(wait, rateLimiter.tryAcquire(bucket, rule.getCapacity(), rule.getPeriod().toNanos()));
+        }
+
+        if (wait > 0) {
+            reject(response, wait);
+            return;
+        }
+        chain.doFilter(cached == null ? request : cached, response);
+    }
+
+    // Unmapped requests have no rules, the dispatcher answers them with 404 or 405
+    private Route route(HttpServletRequest request) {
+        HandlerExecutionChain chain;
+        try {
+            chain = handlerMapping.getHandler(request);
+        } catch (Exception ex) {
+            return null;
+        }
+
+        if (chain == null || !(chain.getHandler() instanceof HandlerMethod))
+            return null;
+        return routes.get(((HandlerMethod) chain.getHandler()).getMethod());
+    }
+
+    private String userId(HttpServletRequest request) {
+        String access = jwtTokenProvider.resolveToken(request);
+        if (access == null)
+            return null;
+
+        try {
+            Claims claims = jwtTokenProvider.verify(access);
+            return claims == null ? null : String.valueOf(claims.get("id"));
+        } catch (JwtAuthenticationException ex) {
+            return null;
+        }
+    }
+
+    private String email(byte[] body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            if (json == null || !json.isObject())
+                return null;
+
+            JsonNode email = json.has("email") ? json.get("email") : json.get("username");
+            return email == null || !email.isTextual() ? null : email.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+
+        RuntimeExceptionDTO exceptionDTO = RuntimeExceptionDTO.builder()
+            .message("Too many requests")
+            .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), exceptionDTO);
+    }
+
+    private static class Route {
+
+        private final String name;
+        private final List<RateLimitRule> rules;
+
+        private Route(String name, List<RateLimitRule> rules) {
+            this.name = name;
+            this.rules = rules;
+        }
+    }
+
+    // The body is read once for the email key and replayed to the controller
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream stream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return stream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return stream.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return stream.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(
+                getInputStream(),
+                encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)
+            ));
+        }
+    }
+}
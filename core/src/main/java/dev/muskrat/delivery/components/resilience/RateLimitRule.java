@@ -0,0 +1,54 @@
+package dev.muskrat.delivery.components.resilience;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One bucket per key: capacity requests per period, keyed by client ip,
+ * authenticated user id or the email in the request body.
+ */
+@Getter
+public class RateLimitRule {
+
+    public enum Key { IP, USER, EMAIL }
+
+    private final Key key;
+    private final int capacity;
+    private final Duration period;
+
+    public RateLimitRule(Key key, int capacity, Duration period) {
+        if (capacity <= 0 || period.isNegative() || period.isZero())
+            throw new IllegalArgumentException("Rate limit must allow at least one request per period");
+
+        this.key = key;
+        this.capacity = capacity;
+        this.period = period;
+    }
+
+    // "ip:20/1m, email:5/1m"
+    public static List<RateLimitRule> parse(String rules) {
+        List<RateLimitRule> parsed = new ArrayList<>();
+        for (String rule : rules.split(",")) {
+            String trimmed = rule.trim();
+            if (trimmed.isEmpty())
+                continue;
+
+            int colon = trimmed.indexOf(':');
+            int slash = trimmed.indexOf('/');
+            if (colon < 0 || slash < colon)
+                throw new IllegalArgumentException("Rate limit rule must look like ip:20/1m, got " + trimmed);
+
+            parsed.add(new RateLimitRule(
+                Key.valueOf(trimmed.substring(0, colon).trim().toUpperCase(Locale.ROOT)),
+                Integer.parseInt(trimmed.substring(colon + 1, slash).trim()),
+                DurationStyle.detectAndParse(trimmed.substring(slash + 1).trim())
+            ));
+        }
+        return parsed;
+    }
+}
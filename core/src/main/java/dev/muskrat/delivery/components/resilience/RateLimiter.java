@@ -0,0 +1,92 @@
+package dev.muskrat.delivery.components.resilience;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets keyed by string, kept as one long per key.
+ * <p>
+ * Each bucket stores the time at which it will be full again (the GCRA form
+ * of a token bucket), so taking a token is a single CAS and different keys
+ * never contend. A bucket whose full time has passed carries no state and is
+ * dropped by {@link #sweep()}. When {@code maxKeys} live buckets are reached
+ * anyway, keys without a bucket are refused until some bucket fills up, so a
+ * flood of new keys cannot reset the limits of the keys already tracked.
+ */
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxKeys;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a token from the bucket of the key. A bucket holds capacity
+     * tokens and refills all of them over periodNanos.
+     *
+     * @return 0 when the token was taken, otherwise nanos until one is available
+     */
+    public long tryAcquire(String key, int capacity, long periodNanos) {
+        long interval = periodNanos / capacity;
+        long now = System.nanoTime();
+
+        AtomicLong bucket = bucket(key, now);
+        if (bucket == null) {
+            rejected.increment();
+            return interval;
+        }
+
+        while (true) {
+            long full = bucket.get();
+            long start = full - now > 0 ? full : now;
+            long next = start + interval;
+
+            long wait = next - now - periodNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next))
+                return 0;
+        }
+    }
+
+    // Full buckets are indistinguishable from missing ones
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null)
+            return bucket;
+
+        if (buckets.size() >= maxKeys) {
+            // One forced sweep per second at most, a flood of new keys would sweep on every request
+            long last = lastSweep.get();
+            if (now - last >= SWEEP_INTERVAL && lastSweep.compareAndSet(last, now))
+                sweep();
+            if (buckets.size() >= maxKeys)
+                return null;
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+}
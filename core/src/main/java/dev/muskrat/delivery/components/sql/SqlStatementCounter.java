@@ -0,0 +1,31 @@
+package dev.muskrat.delivery.components.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between
+ * {@link #start()} and {@link #stop()}. Statements outside a started count,
+ * like scheduled jobs or async work, are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<long[]> count = new ThreadLocal<>();
+
+    public void start() {
+        count.set(new long[1]);
+    }
+
+    public long stop() {
+        long[] counted = count.get();
+        count.remove();
+        return counted == null ? 0 : counted[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] counted = count.get();
+        if (counted != null)
+            counted[0]++;
+        return sql;
+    }
+}
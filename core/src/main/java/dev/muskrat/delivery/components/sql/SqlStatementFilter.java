@@ -0,0 +1,61 @@
+package dev.muskrat.delivery.components.sql;
+
+import dev.muskrat.delivery.admin.components.SqlStatementStats;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements of every request and records them per endpoint,
+ * keyed by method and mapping pattern. The count is left in the
+ * {@link #COUNT_ATTRIBUTE} request attribute; with the debug header on it is
+ * also sent as {@link #HEADER}, which needs the body buffered because the
+ * controller has already started writing it when the count is known.
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Sql-Statements";
+    public static final String COUNT_ATTRIBUTE = SqlStatementFilter.class.getName() + ".count";
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final SqlStatementStats sqlStatementStats;
+    private final boolean debugHeader;
+
+    public SqlStatementFilter(SqlStatementCounter sqlStatementCounter, SqlStatementStats sqlStatementStats, boolean debugHeader) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.sqlStatementStats = sqlStatementStats;
+        this.debugHeader = debugHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+
+        ContentCachingResponseWrapper buffered = debugHeader ? new ContentCachingResponseWrapper(response) : null;
+
+        long statements;
+        sqlStatementCounter.start();
+        try {
+            chain.doFilter(request, buffered == null ? response : buffered);
+        } finally {
+            statements = sqlStatementCounter.stop();
+            request.setAttribute(COUNT_ATTRIBUTE, statements);
+
+            // Unmapped requests are left out, their paths are unbounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null)
+                sqlStatementStats.record(request.getMethod() + " " + pattern, statements);
+        }
+
+        if (buffered != null) {
+            buffered.setHeader(HEADER, String.valueOf(statements));
+            buffered.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package dev.muskrat.delivery.configurations;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor geocodeExecutor(
+        @Value("${geocode.http.threads}") int threads
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("geocode-");
+        return executor;
+    }
+
+    // One client for all HERE calls, so connections are pooled and kept alive
+    @Bean
+    public HttpClient geocodeHttpClient(
+        @Qualifier("geocodeExecutor") ThreadPoolTaskExecutor geocodeExecutor,
+        @Value("${geocode.http.connect-timeout}") Duration connectTimeout
+    ) {
+        return HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(geocodeExecutor)
+            .build();
+    }
+}
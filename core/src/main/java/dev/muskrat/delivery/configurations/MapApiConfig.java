@@ -0,0 +1,48 @@
+package dev.muskrat.delivery.configurations;
+
+import dev.muskrat.delivery.components.resilience.Bulkhead;
+import dev.muskrat.delivery.components.resilience.CircuitBreaker;
+import dev.muskrat.delivery.map.service.FallbackMapApi;
+import dev.muskrat.delivery.map.service.MapApi;
+import dev.muskrat.delivery.map.service.ResilientMapApi;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class MapApiConfig {
+
+    @Bean
+    public ResilientMapApi resilientHereComApi(
+        @Qualifier("hereComApi") MapApi hereComApi,
+        @Value("${geocode.resilience.failure-threshold}") int failureThreshold,
+        @Value("${geocode.resilience.open-duration}") Duration openDuration,
+        @Value("${geocode.resilience.max-concurrent}") int maxConcurrent,
+        @Value("${geocode.resilience.max-wait}") Duration maxWait
+    ) {
+        return new ResilientMapApi(
+            hereComApi,
+            new CircuitBreaker(failureThreshold, openDuration),
+            new Bulkhead(maxConcurrent, maxWait)
+        );
+    }
+
+    // The geocoder behind the cache: HERE, the offline gazetteer, or HERE falling back to it
+    @Bean
+    public MapApi geocoder(
+        ResilientMapApi resilientHereComApi,
+        @Qualifier("offlineMapApi") MapApi offlineMapApi,
+        @Value("${geocode.provider}") String provider,
+        @Value("${geocode.offline.fallback}") boolean fallback
+    ) {
+        if ("offline".equals(provider))
+            return offlineMapApi;
+        if (!"here".equals(provider))
+            throw new IllegalStateException("Unknown geocode.provider " + provider);
+
+        return fallback ? new FallbackMapApi(resilientHereComApi, offlineMapApi) : resilientHereComApi;
+    }
+}
@@ -0,0 +1,25 @@
+package dev.muskrat.delivery.configurations;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PasswordHashConfig {
+
+    // Bounded on both threads and queue, so a login flood is shed instead of eating every core
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+        @Value("${application.security.password-hash.threads}") int threads,
+        @Value("${application.security.password-hash.queue-depth}") int queueDepth
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // PasswordHasher admits at most threads + queue-depth hashes, the pool must never reject those
+        executor.setQueueCapacity(threads + queueDepth);
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.muskrat.delivery.configurations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.muskrat.delivery.auth.security.jwt.JwtTokenProvider;
+import dev.muskrat.delivery.components.resilience.RateLimitFilter;
+import dev.muskrat.delivery.components.resilience.RateLimitRule;
+import dev.muskrat.delivery.components.resilience.RateLimiter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+@Configuration
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+        JwtTokenProvider jwtTokenProvider,
+        ObjectMapper objectMapper,
+        @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+        @Value("${application.rate-limit.max-keys}") int maxKeys,
+        @Value("${application.rate-limit.routes.login}") String login,
+        @Value("${application.rate-limit.routes.register}") String register,
+        @Value("${application.rate-limit.routes.refresh}") String refresh,
+        @Value("${application.rate-limit.routes.order-create}") String orderCreate
+    ) {
+        return new RateLimitFilter(new RateLimiter(maxKeys), jwtTokenProvider, objectMapper, handlerMapping)
+            .route("POST", "/auth/login", RateLimitRule.parse(login))
+            .route("POST", "/auth/register", RateLimitRule.parse(register))
+            .route("POST", "/auth/refresh", RateLimitRule.parse(refresh))
+            .route("POST", "/order/create", RateLimitRule.parse(orderCreate));
+    }
+}
@@ -0,0 +1,40 @@
+package dev.muskrat.delivery.configurations;
+
+import dev.muskrat.delivery.admin.components.SqlStatementStats;
+import dev.muskrat.delivery.components.sql.SqlStatementCounter;
+import dev.muskrat.delivery.components.sql.SqlStatementFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class SqlStatementConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspector(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    // First in the chain, so the queries of the security filters count too
+    @Bean
+    public FilterRegistrationBean<SqlStatementFilter> sqlStatementFilter(
+        SqlStatementCounter sqlStatementCounter,
+        SqlStatementStats sqlStatementStats,
+        @Value("${application.sql.debug-header}") boolean debugHeader
+    ) {
+        FilterRegistrationBean<SqlStatementFilter> registration = new FilterRegistrationBean<>(
+            new SqlStatementFilter(sqlStatementCounter, sqlStatementStats, debugHeader)
+        );
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,19 @@
+package dev.muskrat.delivery.map.components;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class AddressNormalizer {
+
+    private static final Pattern COMMA = Pattern.compile("\\s*,\\s*");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private AddressNormalizer() {
+    }
+
+    // Lower case, single spaces and no spaces around commas
+    public static String normalize(String address) {
+        String lower = address.trim().toLowerCase(Locale.ROOT);
+        return SPACES.matcher(COMMA.matcher(lower).replaceAll(",")).replaceAll(" ");
+    }
+}
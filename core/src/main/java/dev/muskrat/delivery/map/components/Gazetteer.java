@@ -0,0 +1,138 @@
+package dev.muskrat.delivery.map.components;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of a gazetteer file written by {@link GazetteerBuilder}.
+ * <p>
+ * Layout: a 16 byte header (magic, version, record count, reserved), then
+ * fixed size records sorted by normalized address bytes, then the string
+ * blob. A record holds the key offset and length, the label offset and
+ * length, latitude and longitude. The whole file is memory mapped, so a
+ * lookup is a binary search over the records without copying them.
+ */
+public class Gazetteer {
+
+    static final int MAGIC = 0x475A5431;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 32;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int blobStart;
+
+    private Gazetteer(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new IllegalArgumentException("Not a gazetteer file");
+
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.blobStart = HEADER_SIZE + count * RECORD_SIZE;
+    }
+
+    public static Gazetteer open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Gazetteer(mapped);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Record index of the exact key or -1
+    public int find(String normalized) {
+        byte[] key = normalized.getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(key);
+        return index < count && compare(index, key) == 0 ? index : -1;
+    }
+
+    // Up to limit records whose key starts with the prefix, in key order
+    public List<Integer> findByPrefix(String normalizedPrefix, int limit) {
+        byte[] prefix = normalizedPrefix.getBytes(StandardCharsets.UTF_8);
+        List<Integer> found = new ArrayList<>();
+        for (int index = lowerBound(prefix); index < count && found.size() < limit; index++) {
+            if (!startsWith(index, prefix))
+                break;
+            found.add(index);
+        }
+        return found;
+    }
+
+    public double latitude(int index) {
+        return buffer.getDouble(record(index) + 16);
+    }
+
+    public double longitude(int index) {
+        return buffer.getDouble(record(index) + 24);
+    }
+
+    public String label(int index) {
+        int record = record(index);
+        return string(buffer.getInt(record + 8), buffer.getInt(record + 12));
+    }
+
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private boolean startsWith(int index, byte[] prefix) {
+        int record = record(index);
+        int length = buffer.getInt(record + 4);
+        if (length < prefix.length)
+            return false;
+
+        int offset = blobStart + buffer.getInt(record);
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(offset + i) != prefix[i])
+                return false;
+        }
+        return true;
+    }
+
+    // Unsigned byte order, the same order the builder sorts in
+    private int compare(int index, byte[] key) {
+        int record = record(index);
+        int offset = blobStart + buffer.getInt(record);
+        int length = buffer.getInt(record + 4);
+
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int diff = (buffer.get(offset + i) & 0xff) - (key[i] & 0xff);
+            if (diff != 0)
+                return diff;
+        }
+        return length - key.length;
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        int start = blobStart + offset;
+        for (int i = 0; i < length; i++)
+            bytes[i] = buffer.get(start + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int record(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
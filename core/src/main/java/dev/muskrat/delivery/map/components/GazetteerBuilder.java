@@ -0,0 +1,122 @@
+package dev.muskrat.delivery.map.components;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Builds a {@link Gazetteer} file from a CSV of {@code address,latitude,longitude}
+ * lines. The address may contain commas or be quoted; a header line is skipped.
+ * <p>
+ * Usage: {@code java -cp <application classpath> dev.muskrat.delivery.map.components.GazetteerBuilder input.csv output.gaz}
+ */
+public class GazetteerBuilder {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: GazetteerBuilder <input.csv> <output.gaz>");
+            System.exit(1);
+        }
+
+        int written = build(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Gazetteer with " + written + " addresses written to " + args[1]);
+    }
+
+    public static int build(Path csv, Path output) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank())
+                    continue;
+
+                Row row = parse(line);
+                if (row == null) {
+                    if (number == 1)
+                        continue;
+                    throw new IllegalArgumentException("Malformed gazetteer line " + number + ": " + line);
+                }
+                rows.add(row);
+            }
+        }
+
+        rows.sort((a, b) -> Arrays.compareUnsigned(a.key, b.key));
+
+        // First occurrence of a normalized address wins
+        List<Row> unique = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (unique.isEmpty() || !Arrays.equals(unique.get(unique.size() - 1).key, row.key))
+                unique.add(row);
+        }
+
+        try (OutputStream file = Files.newOutputStream(output);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(Gazetteer.MAGIC);
+            out.writeInt(Gazetteer.VERSION);
+            out.writeInt(unique.size());
+            out.writeInt(0);
+
+            int offset = 0;
+            for (Row row : unique) {
+                out.writeInt(offset);
+                out.writeInt(row.key.length);
+                out.writeInt(offset + row.key.length);
+                out.writeInt(row.label.length);
+                out.writeDouble(row.latitude);
+                out.writeDouble(row.longitude);
+                offset += row.key.length + row.label.length;
+            }
+
+            for (Row row : unique) {
+                out.write(row.key);
+                out.write(row.label);
+            }
+        }
+        return unique.size();
+    }
+
+    private static Row parse(String line) {
+        int lonSeparator = line.lastIndexOf(',');
+        if (lonSeparator <= 0)
+            return null;
+        int latSeparator = line.lastIndexOf(',', lonSeparator - 1);
+        if (latSeparator <= 0)
+            return null;
+
+        String label = line.substring(0, latSeparator).trim();
+        if (label.length() >= 2 && label.startsWith("\"") && label.endsWith("\""))
+            label = label.substring(1, label.length() - 1).replace("\"\"", "\"");
+
+        try {
+            double latitude = Double.parseDouble(line.substring(latSeparator + 1, lonSeparator).trim());
+            double longitude = Double.parseDouble(line.substring(lonSeparator + 1).trim());
+            return new Row(label, latitude, longitude);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static class Row {
+
+        private final byte[] key;
+        private final byte[] label;
+        private final double latitude;
+        private final double longitude;
+
+        private Row(String label, double latitude, double longitude) {
+            this.key = AddressNormalizer.normalize(label).getBytes(StandardCharsets.UTF_8);
+            this.label = label.getBytes(StandardCharsets.UTF_8);
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+}
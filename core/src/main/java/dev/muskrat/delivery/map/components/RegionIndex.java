@@ -0,0 +1,170 @@
+package dev.muskrat.delivery.map.components;
+
+import dev.muskrat.delivery.map.dao.CompiledPolygon;
+import dev.muskrat.delivery.map.dao.RegionDelivery;
+import dev.muskrat.delivery.map.dao.RegionPoint;
+import dev.muskrat.delivery.shop.dao.Shop;
+import dev.muskrat.delivery.shop.dao.ShopRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.transaction.Transactional;
+import java.util.*;
+
+/**
+ * Uniform grid over the bounding boxes of shop delivery regions.
+ * Readers work on an immutable snapshot, writers replace it.
+ */
+@Component
+@RequiredArgsConstructor
+public class RegionIndex {
+
+    // Regions spanning more cells than this are checked on every lookup instead
+    private static final long MAX_CELLS_PER_REGION = 4096;
+
+    private final ShopRepository shopRepository;
+
+    @Value("${application.map.region-index.cell-size}")
+    private double cellSize;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public Set<Long> findShops(RegionPoint point) {
+        Snapshot current = snapshot;
+        double x = point.getX();
+        double y = point.getY();
+
+        Set<Long> shops = new HashSet<>();
+        List<Entry> candidates = current.cells.get(cellKey(cell(x), cell(y)));
+        if (candidates != null) {
+            for (Entry entry : candidates) {
+                if (entry.contains(x, y))
+                    shops.add(entry.shopId);
+            }
+        }
+        for (Entry entry : current.wide) {
+            if (entry.contains(x, y))
+                shops.add(entry.shopId);
+        }
+        return shops;
+    }
+
+    /**
+     * The polygon compiled when the region was indexed, or null when the index
+     * holds no region for the shop or not this version of it. Regions changed
+     * on another node stay stale here until the next rebuild.
+     */
+    public CompiledPolygon findPolygon(Long shopId, RegionDelivery region) {
+        Entry entry = snapshot.entries.get(shopId);
+        if (entry == null || !entry.regionId.equals(region.getId()) || !Objects.equals(entry.version, region.getVersion()))
+            return null;
+        return entry.polygon;
+    }
+
+    @Transactional
+    public synchronized void rebuild() {
+        Map<Long, Entry> entries = new HashMap<>();
+        for (Shop shop : shopRepository.findAllWithRegion()) {
+            Entry entry = Entry.of(shop.getId(), shop.getRegion());
+            if (entry != null)
+                entries.put(entry.shopId, entry);
+        }
+        snapshot = index(entries);
+    }
+
+    public synchronized void update(Long shopId, RegionDelivery region) {
+        Map<Long, Entry> entries = new HashMap<>(snapshot.entries);
+        Entry entry = Entry.of(shopId, region);
+        if (entry == null)
+            entries.remove(shopId);
+        else
+            entries.put(shopId, entry);
+        snapshot = index(entries);
+    }
+
+    public synchronized void remove(Long shopId) {
+        if (!snapshot.entries.containsKey(shopId))
+            return;
+        Map<Long, Entry> entries = new HashMap<>(snapshot.entries);
+        entries.remove(shopId);
+        snapshot = index(entries);
+    }
+
+    private Snapshot index(Map<Long, Entry> entries) {
+        Map<Long, List<Entry>> cells = new HashMap<>();
+        List<Entry> wide = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            long spanX = (long) cell(entry.maxX) - cell(entry.minX) + 1;
+            long spanY = (long) cell(entry.maxY) - cell(entry.minY) + 1;
+            if (spanX * spanY > MAX_CELLS_PER_REGION) {
+                wide.add(entry);
+                continue;
+            }
+
+            int maxX = cell(entry.maxX);
+            int maxY = cell(entry.maxY);
+            for (int cx = cell(entry.minX); cx <= maxX; cx++) {
+                for (int cy = cell(entry.minY); cy <= maxY; cy++) {
+                    cells.computeIfAbsent(cellKey(cx, cy), k -> new ArrayList<>()).add(entry);
+                }
+            }
+        }
+        return new Snapshot(Collections.unmodifiableMap(entries), cells, wide);
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private static class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList());
+
+        private final Map<Long, Entry> entries;
+        private final Map<Long, List<Entry>> cells;
+        private final List<Entry> wide;
+
+        private Snapshot(Map<Long, Entry> entries, Map<Long, List<Entry>> cells, List<Entry> wide) {
+            this.entries = entries;
+            this.cells = cells;
+            this.wide = wide;
+        }
+    }
+
+    private static class Entry {
+
+        private final Long shopId;
+        private final Long regionId;
+        private final Long version;
+        private final CompiledPolygon polygon;
+        private final double minX, minY, maxX, maxY;
+
+        private Entry(Long shopId, RegionDelivery region, CompiledPolygon polygon) {
+            this.shopId = shopId;
+            this.regionId = region.getId();
+            this.version = region.getVersion();
+            this.polygon = polygon;
+            this.minX = polygon.getMinX();
+            this.minY = polygon.getMinY();
+            this.maxX = polygon.getMaxX();
+            this.maxY = polygon.getMaxY();
+        }
+
+        private static Entry of(Long shopId, RegionDelivery region) {
+            if (region == null)
+                return null;
+
+            CompiledPolygon polygon = region.getPolygon();
+            return polygon.isEmpty() ? null : new Entry(shopId, region, polygon);
+        }
+
+        private boolean contains(double x, double y) {
+            return polygon.contains(x, y);
+        }
+    }
+}
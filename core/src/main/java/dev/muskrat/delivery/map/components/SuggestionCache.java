@@ -0,0 +1,128 @@
+package dev.muskrat.delivery.map.components;
+
+import dev.muskrat.delivery.components.cache.ExpiringLruCache;
+import dev.muskrat.delivery.components.cache.SingleFlight;
+import dev.muskrat.delivery.map.dto.AutoCompleteElementDTO;
+import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Short-lived autocomplete cache keyed by normalized query. A query missing
+ * from the cache is answered from a cached shorter prefix when that prefix
+ * returned fewer suggestions than the upstream limit, i.e. all of them.
+ * Concurrent misses for the same query share one upstream call.
+ */
+@Component
+public class SuggestionCache {
+
+    private static final int MIN_PREFIX = 3;
+
+    @Value("${geocode.complete.maxresults}")
+    private Integer maxResults;
+
+    @Value("${geocode.cache.autocomplete.max-size}")
+    private Integer maxSize;
+
+    @Value("${geocode.cache.autocomplete.ttl}")
+    private Duration ttl;
+
+    private ExpiringLruCache<String, AutoCompleteResponseDTO> cache;
+    private final SingleFlight<String, AutoCompleteResponseDTO> singleFlight = new SingleFlight<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        cache = new ExpiringLruCache<>(maxSize, ttl);
+    }
+
+    public AutoCompleteResponseDTO get(String query) {
+        AutoCompleteResponseDTO exact = cache.get(query);
+        if (exact != null) {
+            hits.increment();
+            return exact;
+        }
+
+        for (int length = query.length() - 1; length >= MIN_PREFIX; length--) {
+            AutoCompleteResponseDTO shorter = cache.get(query.substring(0, length));
+            if (shorter != null && isComplete(shorter)) {
+                AutoCompleteResponseDTO filtered = filter(shorter, query);
+                cache.put(query, filtered);
+                hits.increment();
+                return filtered;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public CompletableFuture<AutoCompleteResponseDTO> load(
+        String query,
+        Function<String, CompletableFuture<AutoCompleteResponseDTO>> loader
+    ) {
+        return singleFlight.execute(query, key -> loader.apply(key)
+            .thenApply(response -> {
+                cache.put(key, response);
+                return response;
+            }));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getShared() {
+        return singleFlight.getShared();
+    }
+
+    private boolean isComplete(AutoCompleteResponseDTO response) {
+        return response.getSuggestions() == null || response.getSuggestions().size() < maxResults;
+    }
+
+    // Every query word has to start some word of the suggestion label
+    private static AutoCompleteResponseDTO filter(AutoCompleteResponseDTO response, String query) {
+        List<AutoCompleteElementDTO> suggestions = new ArrayList<>();
+        if (response.getSuggestions() != null) {
+            String[] words = query.split("[\\s,]+");
+            for (AutoCompleteElementDTO suggestion : response.getSuggestions()) {
+                if (suggestion.getLabel() != null && matches(suggestion.getLabel(), words))
+                    suggestions.add(suggestion);
+            }
+        }
+        return new AutoCompleteResponseDTO(suggestions);
+    }
+
+    private static boolean matches(String label, String[] words) {
+        String[] labelWords = label.toLowerCase(Locale.ROOT).split("[\\s,]+");
+        for (String word : words) {
+            if (word.isEmpty())
+                continue;
+
+            boolean found = false;
+            for (String labelWord : labelWords) {
+                if (labelWord.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found)
+                return false;
+        }
+        return true;
+    }
+}
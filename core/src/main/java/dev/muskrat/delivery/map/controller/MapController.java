@@ -1,6 +1,8 @@
 package dev.muskrat.delivery.map.controller;
 
 import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocodeCacheStatsDTO;
+import dev.muskrat.delivery.map.dto.GeocoderStatsDTO;
 import dev.muskrat.delivery.map.dto.RegionDTO;
 import dev.muskrat.delivery.map.dto.RegionUpdateDTO;
 import dev.muskrat.delivery.map.dto.RegionUpdateResponseDTO;
@@ -42,4 +44,16 @@ public class MapController {
     ) {
         return mappingService.findShopRegion(shopId);
     }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public GeocodeCacheStatsDTO geocodeCacheStats() {
+        return mappingService.geocodeCacheStats();
+    }
+
+    @GetMapping("/geocoder/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public GeocoderStatsDTO geocoderStats() {
+        return mappingService.geocoderStats();
+    }
 }
@@ -0,0 +1,95 @@
+package dev.muskrat.delivery.map.dao;
+
+import java.util.List;
+
+/**
+ * Primitive form of a delivery region: packed vertices, bounding box and
+ * per-edge inverse slopes, so containment checks neither unbox nor divide.
+ */
+public final class CompiledPolygon {
+
+    public static final CompiledPolygon EMPTY = new CompiledPolygon(new double[0], new double[0]);
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] slopes;
+
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+
+    private CompiledPolygon(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.slopes = new double[xs.length];
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+
+            // Horizontal edges never pass the crossing test, their slope is unused
+            double dy = ys[j] - ys[i];
+            slopes[i] = dy == 0 ? 0 : (xs[j] - xs[i]) / dy;
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    public static CompiledPolygon of(List<Double> abscissa, List<Double> ordinate) {
+        if (abscissa == null || ordinate == null)
+            return EMPTY;
+
+        int size = Math.min(abscissa.size(), ordinate.size());
+        if (size < 3)
+            return EMPTY;
+
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = abscissa.get(i);
+            ys[i] = ordinate.get(i);
+        }
+        return new CompiledPolygon(xs, ys);
+    }
+
+    public boolean isEmpty() {
+        return xs.length == 0;
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    public boolean contains(double x, double y) {
+        if (x < minX || x > maxX || y < minY || y > maxY)
+            return false;
+
+        boolean c = false;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            double yi = ys[i];
+            double yj = ys[j];
+            if (((yi <= y && y < yj) || (yj <= y && y < yi)) && x > slopes[i] * (y - yi) + xs[i])
+                c = !c;
+        }
+        return c;
+    }
+}
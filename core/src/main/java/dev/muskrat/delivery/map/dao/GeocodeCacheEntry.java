@@ -0,0 +1,35 @@
+package dev.muskrat.delivery.map.dao;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(name = "geocode_cache", indexes = @Index(name = "idx_geocode_cache_expires", columnList = "expires"))
+public class GeocodeCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 511)
+    private String key;
+
+    // False for addresses the geocoder could not find
+    @Column(name = "found")
+    private Boolean found;
+
+    @Column(name = "valid")
+    private Boolean valid;
+
+    @Column(name = "address")
+    private String address;
+
+    @Column(name = "x")
+    private Double x;
+
+    @Column(name = "y")
+    private Double y;
+
+    @Column(name = "expires")
+    private Instant expires;
+}
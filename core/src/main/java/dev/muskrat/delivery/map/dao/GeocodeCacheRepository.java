@@ -0,0 +1,14 @@
+package dev.muskrat.delivery.map.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, String> {
+
+    Slice<GeocodeCacheEntry> findAllByExpiresAfter(Instant now, Pageable pageable);
+}
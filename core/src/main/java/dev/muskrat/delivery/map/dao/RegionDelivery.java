@@ -2,7 +2,12 @@ package dev.muskrat.delivery.map.dao;
 
 import dev.muskrat.delivery.components.dao.BaseEntity;
 import dev.muskrat.delivery.shop.dao.Shop;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.OptimisticLock;
 
 import javax.persistence.*;
 import java.util.List;
@@ -12,15 +17,23 @@ import java.util.List;
 @Table(name = "regions")
 public class RegionDelivery extends BaseEntity {
 
+    @OptimisticLock(excluded = true)
     @Column(name = "deliveryCost")
     private Double deliveryCost;
 
+    @OptimisticLock(excluded = true)
     @Column(name = "minOrderCost")
     private Double minOrderCost;
 
+    @OptimisticLock(excluded = true)
     @Column(name = "freeDeliveryCost")
     private Double freeDeliveryCost;
 
+    // Moves when the points change, so a compiled copy of the polygon can tell it is stale
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @ElementCollection
     @Column(name = "abscissa")
     private List<Double> abscissa;
@@ -36,16 +49,30 @@ public class RegionDelivery extends BaseEntity {
     )
     private Shop shop;
 
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Setter(AccessLevel.NONE)
+    private transient CompiledPolygon polygon;
+
+    public void setAbscissa(List<Double> abscissa) {
+        this.abscissa = abscissa;
+        this.polygon = null;
+    }
+
+    public void setOrdinate(List<Double> ordinate) {
+        this.ordinate = ordinate;
+        this.polygon = null;
+    }
+
+    public CompiledPolygon getPolygon() {
+        CompiledPolygon compiled = polygon;
+        if (compiled == null)
+            polygon = compiled = CompiledPolygon.of(abscissa, ordinate);
+        return compiled;
+    }
+
     public boolean isRegionAvailable(RegionPoint point) {
-        double x = point.getX();
-        double y = point.getY();
-        boolean c = false;
-        
-        for (int i = 0, j = abscissa.size() - 1; i < abscissa.size(); j = i++) {
-            if ((((ordinate.get(i) <= y) && (y < ordinate.get(j))) || ((ordinate.get(j) <= y) && (y < ordinate.get(i)))) &&
-                (ordinate.get(j) - ordinate.get(i) != 0 && x > (abscissa.get(j) - abscissa.get(i)) * (y - ordinate.get(i)) / (ordinate.get(j) - ordinate.get(i)) + abscissa.get(i)))
-                c = !c;
-        }
-        return c;
+        return getPolygon().contains(point.getX(), point.getY());
     }
 }
@@ -0,0 +1,21 @@
+package dev.muskrat.delivery.map.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocodeCacheStatsDTO {
+
+    private Long hits;
+    private Long misses;
+    private Integer size;
+
+    private Long suggestionHits;
+    private Long suggestionMisses;
+    private Long suggestionShared;
+}
@@ -0,0 +1,21 @@
+package dev.muskrat.delivery.map.dto;
+
+import dev.muskrat.delivery.map.dao.RegionPoint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocodeResultDTO {
+
+    // True when the address resolves down to a house number
+    private Boolean valid;
+
+    private String address;
+
+    private RegionPoint point;
+}
@@ -0,0 +1,23 @@
+package dev.muskrat.delivery.map.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocoderStatsDTO {
+
+    private String state;
+
+    private Long opened;
+    private Long halfOpened;
+    private Long closed;
+
+    private Long circuitRejections;
+    private Long bulkheadRejections;
+    private Integer bulkheadAvailable;
+}
@@ -0,0 +1,232 @@
+package dev.muskrat.delivery.map.service;
+
+import dev.muskrat.delivery.components.cache.ExpiringLruCache;
+import dev.muskrat.delivery.components.exception.AddressNotFoundException;
+import dev.muskrat.delivery.components.exception.LocationParseException;
+import dev.muskrat.delivery.map.components.AddressNormalizer;
+import dev.muskrat.delivery.map.components.SuggestionCache;
+import dev.muskrat.delivery.map.dao.GeocodeCacheEntry;
+import dev.muskrat.delivery.map.dao.GeocodeCacheRepository;
+import dev.muskrat.delivery.map.dao.RegionPoint;
+import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocodeCacheStatsDTO;
+import dev.muskrat.delivery.map.dto.GeocodeResultDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Caches geocoder answers by normalized address, including "not found"
+ * answers for a shorter time. Entries are optionally persisted so the
+ * in-memory tier can be warmed up after a restart, and so an expired
+ * answer can still be served while the geocoder is unavailable.
+ */
+@Service
+@Primary
+public class CachingMapApi implements MapApi {
+
+    private final MapApi delegate;
+    private final GeocodeCacheRepository geocodeCacheRepository;
+    private final SuggestionCache suggestionCache;
+    private final ExpiringLruCache<String, GeocodeCacheEntry> cache;
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final boolean persistent;
+
+    public CachingMapApi(
+        @Qualifier("geocoder") MapApi delegate,
+        GeocodeCacheRepository geocodeCacheRepository,
+        SuggestionCache suggestionCache,
+        @Value("${geocode.cache.max-size}") int maxSize,
+        @Value("${geocode.cache.ttl}") Duration ttl,
+        @Value("${geocode.cache.negative-ttl}") Duration negativeTtl,
+        @Value("${geocode.cache.persistent}") boolean persistent
+    ) {
+        this.delegate = delegate;
+        this.geocodeCacheRepository = geocodeCacheRepository;
+        this.suggestionCache = suggestionCache;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.persistent = persistent;
+        this.cache = new ExpiringLruCache<>(maxSize, ttl);
+    }
+
+    @EventListener
+    public void warmUp(ApplicationReadyEvent event) {
+        if (!persistent)
+            return;
+
+        Instant now = Instant.now();
+        geocodeCacheRepository.findAllByExpiresAfter(now, PageRequest.of(0, maxSize))
+            .forEach(entry -> cache.put(entry.getKey(), entry, Duration.between(now, entry.getExpires())));
+    }
+
+    @Override
+    public boolean isValidAddress(String city, String label) {
+        return join(isValidAddressAsync(city, label));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isValidAddressAsync(String city, String label) {
+        String key = "valid:" + AddressNormalizer.normalize(city + " " + label);
+        return resolve(key, () -> delegate.isValidAddressAsync(city, label), GeocodeCacheEntry::setValid)
+            .thenApply(GeocodeCacheEntry::getValid);
+    }
+
+    @Override
+    public AutoCompleteResponseDTO autoComplete(String label) {
+        return join(autoCompleteAsync(label));
+    }
+
+    @Override
+    public CompletableFuture<AutoCompleteResponseDTO> autoCompleteAsync(String label) {
+        String key = AddressNormalizer.normalize(label);
+        AutoCompleteResponseDTO cached = suggestionCache.get(key);
+        if (cached != null)
+            return CompletableFuture.completedFuture(cached);
+        return suggestionCache.load(key, k -> delegate.autoCompleteAsync(label));
+    }
+
+    @Override
+    public RegionPoint getPointByAddress(String label) {
+        return join(getPointByAddressAsync(label));
+    }
+
+    @Override
+    public CompletableFuture<RegionPoint> getPointByAddressAsync(String label) {
+        String key = "point:" + AddressNormalizer.normalize(label);
+        BiConsumer<GeocodeCacheEntry, RegionPoint> fill = (entry, point) -> {
+            entry.setX(point.getX());
+            entry.setY(point.getY());
+        };
+        return resolve(key, () -> delegate.getPointByAddressAsync(label), fill)
+            .thenApply(entry -> new RegionPoint(entry.getX(), entry.getY(), 100D));
+    }
+
+    @Override
+    public GeocodeResultDTO geocode(String city, String label) {
+        return join(geocodeAsync(city, label));
+    }
+
+    @Override
+    public CompletableFuture<GeocodeResultDTO> geocodeAsync(String city, String label) {
+        String key = "geocode:" + AddressNormalizer.normalize(city + " " + label);
+        BiConsumer<GeocodeCacheEntry, GeocodeResultDTO> fill = (entry, result) -> {
+            entry.setValid(result.getValid());
+            entry.setAddress(result.getAddress());
+            entry.setX(result.getPoint().getX());
+            entry.setY(result.getPoint().getY());
+        };
+        return resolve(key, () -> delegate.geocodeAsync(city, label), fill)
+            .thenApply(entry -> GeocodeResultDTO.builder()
+                .valid(entry.getValid())
+                .address(entry.getAddress())
+                .point(new RegionPoint(entry.getX(), entry.getY(), 100D))
+                .build());
+    }
+
+    public GeocodeCacheStatsDTO stats() {
+        return GeocodeCacheStatsDTO.builder()
+            .hits(cache.getHits())
+            .misses(cache.getMisses())
+            .size(cache.size())
+            .suggestionHits(suggestionCache.getHits())
+            .suggestionMisses(suggestionCache.getMisses())
+            .suggestionShared(suggestionCache.getShared())
+            .build();
+    }
+
+    private GeocodeCacheEntry lookup(String key) {
+        GeocodeCacheEntry entry = cache.get(key);
+        if (entry != null || !persistent)
+            return entry;
+
+        Instant now = Instant.now();
+        Optional<GeocodeCacheEntry> stored = geocodeCacheRepository.findById(key)
+            .filter(e -> e.getExpires().isAfter(now));
+        stored.ifPresent(e -> cache.put(key, e, Duration.between(now, e.getExpires())));
+        return stored.orElse(null);
+    }
+
+    private void store(GeocodeCacheEntry entry) {
+        Duration entryTtl = entry.getFound() ? ttl : negativeTtl;
+        entry.setExpires(Instant.now().plus(entryTtl));
+        cache.put(entry.getKey(), entry, entryTtl);
+        if (persistent)
+            geocodeCacheRepository.save(entry);
+    }
+
+    // Cached entry or the delegate answer stored as one, failing with AddressNotFoundException for negative entries
+    private <T> CompletableFuture<GeocodeCacheEntry> resolve(
+        String key,
+        Supplier<CompletableFuture<T>> call,
+        BiConsumer<GeocodeCacheEntry, T> fill
+    ) {
+        GeocodeCacheEntry cached = lookup(key);
+        CompletableFuture<GeocodeCacheEntry> entry;
+        if (cached != null) {
+            entry = CompletableFuture.completedFuture(cached);
+        } else {
+            CompletableFuture<T> answer;
+            try {
+                answer = call.get();
+            } catch (RuntimeException ex) {
+                answer = CompletableFuture.failedFuture(ex);
+            }
+
+            entry = answer.handle((value, ex) -> {
+                Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                if (cause instanceof LocationParseException)
+                    return stale(key, (LocationParseException) cause);
+                if (cause != null && !(cause instanceof AddressNotFoundException))
+                    throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+
+                GeocodeCacheEntry created = new GeocodeCacheEntry();
+                created.setKey(key);
+                created.setFound(cause == null);
+                if (cause == null)
+                    fill.accept(created, value);
+                store(created);
+                return created;
+            });
+        }
+
+        return entry.thenApply(e -> {
+            if (!e.getFound())
+                throw new AddressNotFoundException("Address not found");
+            return e;
+        });
+    }
+
+    // While the geocoder is unavailable an expired persisted answer beats none
+    private GeocodeCacheEntry stale(String key, LocationParseException failure) {
+        if (!persistent)
+            throw failure;
+        return geocodeCacheRepository.findById(key).orElseThrow(() -> failure);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException)
+                throw (RuntimeException) ex.getCause();
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package dev.muskrat.delivery.map.service;
+
+import dev.muskrat.delivery.components.exception.AddressNotFoundException;
+import dev.muskrat.delivery.components.exception.LocationParseException;
+import dev.muskrat.delivery.map.dao.RegionPoint;
+import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocodeResultDTO;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Asks the fallback geocoder when the primary one is unavailable, that is
+ * when it fails with LocationParseException. "Not found" answers of the
+ * primary are final.
+ */
+@RequiredArgsConstructor
+public class FallbackMapApi implements MapApi {
+
+    private final MapApi primary;
+    private final MapApi fallback;
+
+    @Override
+    public boolean isValidAddress(String city, String label) {
+        try {
+            return primary.isValidAddress(city, label);
+        } catch (LocationParseException ex) {
+            return fallback(ex, () -> fallback.isValidAddress(city, label));
+        }
+    }
+
+    @Override
+    public AutoCompleteResponseDTO autoComplete(String label) {
+        try {
+            return primary.autoComplete(label);
+        } catch (LocationParseException ex) {
+            return fallback(ex, () -> fallback.autoComplete(label));
+        }
+    }
+
+    @Override
+    public RegionPoint getPointByAddress(String label) {
+        try {
+            return primary.getPointByAddress(label);
+        } catch (LocationParseException ex) {
+            return fallback(ex, () -> fallback.getPointByAddress(label));
+        }
+    }
+
+    @Override
+    public GeocodeResultDTO geocode(String city, String label) {
+        try {
+            return primary.geocode(city, label);
+        } catch (LocationParseException ex) {
+            return fallback(ex, () -> fallback.geocode(city, label));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isValidAddressAsync(String city, String label) {
+        return primary.isValidAddressAsync(city, label)
+            .handle((valid, ex) -> ex == null ? valid : fallback(ex, () -> fallback.isValidAddress(city, label)));
+    }
+
+    @Override
+    public CompletableFuture<AutoCompleteResponseDTO> autoCompleteAsync(String label) {
+        return primary.autoCompleteAsync(label)
+            .handle((response, ex) -> ex == null ? response : fallback(ex, () -> fallback.autoComplete(label)));
+    }
+
+    @Override
+    public CompletableFuture<RegionPoint> getPointByAddressAsync(String label) {
+        return primary.getPointByAddressAsync(label)
+            .handle((point, ex) -> ex == null ? point : fallback(ex, () -> fallback.getPointByAddress(label)));
+    }
+
+    @Override
+    public CompletableFuture<GeocodeResultDTO> geocodeAsync(String city, String label) {
+        return primary.geocodeAsync(city, label)
+            .handle((result, ex) -> ex == null ? result : fallback(ex, () -> fallback.geocode(city, label)));
+    }
+
+    // Unknown to the fallback as well means the primary failure is the answer
+    private static <T> T fallback(Throwable failure, Supplier<T> call) {
+        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if (!(cause instanceof LocationParseException))
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+
+        try {
+            return call.get();
+        } catch (AddressNotFoundException ex) {
+            throw (LocationParseException) cause;
+        }
+    }
+}
@@ -6,18 +6,29 @@ import dev.muskrat.delivery.components.exception.AddressNotFoundException;
 import dev.muskrat.delivery.components.exception.LocationParseException;
 import dev.muskrat.delivery.map.dao.RegionPoint;
 import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocodeResultDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @RequiredArgsConstructor
 public class HereComApi implements MapApi {
 
+    private final HttpClient geocodeHttpClient;
+    private final ObjectMapper objectMapper;
+
     @Value("${geocode.app.id}")
     private String APP_ID;
 
@@ -30,85 +41,171 @@ public class HereComApi implements MapApi {
     @Value("${geocode.complete.maxresults}")
     private Integer MAX_RESULTS;
 
+    @Value("${geocode.http.read-timeout}")
+    private Duration readTimeout;
+
     public AutoCompleteResponseDTO autoComplete(String label) {
-        String http = UriComponentsBuilder.newInstance()
+        return parseAutoComplete(send(autoCompleteUri(label)));
+    }
+
+    @Override
+    public CompletableFuture<AutoCompleteResponseDTO> autoCompleteAsync(String label) {
+        return sendAsync(autoCompleteUri(label)).thenApply(this::parseAutoComplete);
+    }
+
+    public RegionPoint getPointByAddress(String label) {
+        return parsePoint(send(pointUri(label)));
+    }
+
+    @Override
+    public CompletableFuture<RegionPoint> getPointByAddressAsync(String label) {
+        return sendAsync(pointUri(label)).thenApply(this::parsePoint);
+    }
+
+    @Override
+    public boolean isValidAddress(String city, String label) {
+        return parseValid(send(validUri(city, label)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isValidAddressAsync(String city, String label) {
+        return sendAsync(validUri(city, label)).thenApply(this::parseValid);
+    }
+
+    @Override
+    public GeocodeResultDTO geocode(String city, String label) {
+        return parseGeocode(send(validUri(city, label)));
+    }
+
+    @Override
+    public CompletableFuture<GeocodeResultDTO> geocodeAsync(String city, String label) {
+        return sendAsync(validUri(city, label)).thenApply(this::parseGeocode);
+    }
+
+    private URI autoCompleteUri(String label) {
+        return UriComponentsBuilder.newInstance()
             .scheme("https")
             .host("autocomplete.geocoder.api.here.com")
             .path("/6.2/suggest.json")
-            .query("app_id=" + APP_ID)
-            .query("app_code=" + APP_CODE)
-            .query("country=" + COUNTRY)
-            .query("maxresults=" + MAX_RESULTS)
-            .query("query=" + label)
-            .build().toString();
-
-        RestTemplate restTemplate = new RestTemplate();
-        AutoCompleteResponseDTO autoCompleteResponseDTO = restTemplate
-            .getForObject(http, AutoCompleteResponseDTO.class);
-        return autoCompleteResponseDTO;
+            .queryParam("app_id", APP_ID)
+            .queryParam("app_code", APP_CODE)
+            .queryParam("country", COUNTRY)
+            .queryParam("maxresults", MAX_RESULTS)
+            .queryParam("query", label)
+            .build().encode().toUri();
     }
 
-    public RegionPoint getPointByAddress(String label) {
-        String http = UriComponentsBuilder.newInstance()
+    private URI pointUri(String label) {
+        return UriComponentsBuilder.newInstance()
             .scheme("http")
             .host("geocoder.api.here.com")
             .path("/6.2/geocode.json")
-            .query("app_id=" + APP_ID)
-            .query("app_code=" + APP_CODE)
-            .query("locationattributes=none")
-            .query("country=" + COUNTRY)
-            .query("maxresults=" + MAX_RESULTS)
-            .query("searchtext=" + label)
-            .build().toString();
+            .queryParam("app_id", APP_ID)
+            .queryParam("app_code", APP_CODE)
+            .queryParam("locationattributes", "none")
+            .queryParam("country", COUNTRY)
+            .queryParam("maxresults", MAX_RESULTS)
+            .queryParam("searchtext", label)
+            .build().encode().toUri();
+    }
 
-        RestTemplate restTemplate = new RestTemplate();
-        String json = restTemplate.getForObject(http, String.class);
+    private URI validUri(String city, String label) {
+        return UriComponentsBuilder.newInstance()
+            .scheme("http")
+            .host("geocoder.api.here.com")
+            .path("/6.2/geocode.json")
+            .queryParam("app_id", APP_ID)
+            .queryParam("app_code", APP_CODE)
+            .queryParam("locationattributes", "address")
+            .queryParam("country", COUNTRY)
+            .queryParam("maxresults", MAX_RESULTS)
+            .queryParam("searchtext", city + " " + label)
+            .build().encode().toUri();
+    }
 
-        JsonNode location;
+    private HttpRequest request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+            .timeout(readTimeout)
+            .GET()
+            .build();
+    }
 
+    private String send(URI uri) {
         try {
-            JsonNode httpResponse = new ObjectMapper().readTree(json);
-            if (!httpResponse.has("Response"))
-                throw new LocationParseException("MapApi timeout");
+            return body(geocodeHttpClient.send(request(uri), HttpResponse.BodyHandlers.ofString()));
+        } catch (HttpTimeoutException ex) {
+            throw new LocationParseException("MapApi timeout");
+        } catch (IOException ex) {
+            throw new LocationParseException("MapApi not available");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new LocationParseException("MapApi request interrupted");
+        }
+    }
 
-            JsonNode view = httpResponse.get("Response").get("View");
-            if (!view.has(0))
-                throw new AddressNotFoundException("Address not found");
+    private CompletableFuture<String> sendAsync(URI uri) {
+        return geocodeHttpClient.sendAsync(request(uri), HttpResponse.BodyHandlers.ofString())
+            .handle((response, ex) -> {
+                if (ex == null)
+                    return body(response);
+
+                Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                if (cause instanceof HttpTimeoutException)
+                    throw new LocationParseException("MapApi timeout");
+                throw new LocationParseException("MapApi not available");
+            });
+    }
+
+    private String body(HttpResponse<String> response) {
+        if (response.statusCode() != 200)
+            throw new LocationParseException("MapApi responded with " + response.statusCode());
+        return response.body();
+    }
 
-            location = view.get(0)
-                .get("Result").get(0)
-                .get("Location")
-                .get("NavigationPosition").get(0);
+    private AutoCompleteResponseDTO parseAutoComplete(String json) {
+        try {
+            return objectMapper.readValue(json, AutoCompleteResponseDTO.class);
         } catch (IOException ex) {
-            throw new LocationParseException("Location don't parsed");
+            throw new LocationParseException("Suggestions don't parsed");
         }
+    }
+
+    private RegionPoint parsePoint(String json) {
+        return point(firstResult(json).get("Location"));
+    }
+
+    private boolean parseValid(String json) {
+        return hasHouseNumber(firstResult(json).get("Location"));
+    }
 
-        double latitude = location.get("Latitude").asDouble();
-        double longitude = location.get("Longitude").asDouble();
+    private GeocodeResultDTO parseGeocode(String json) {
+        JsonNode location = firstResult(json).get("Location");
+        JsonNode label = location.get("Address").get("Label");
 
-        return new RegionPoint(latitude, longitude, 100D);
+        return GeocodeResultDTO.builder()
+            .valid(hasHouseNumber(location))
+            .address(label == null ? null : label.asText())
+            .point(point(location))
+            .build();
     }
-    @Override
-    public boolean isValidAddress(String city, String label) {
-        String http = UriComponentsBuilder.newInstance()
-            .scheme("http")
-            .host("geocoder.api.here.com")
-            .path("/6.2/geocode.json")
-            .query("app_id=" + APP_ID)
-            .query("app_code=" + APP_CODE)
-            .query("locationattributes=address")
-            .query("country=" + COUNTRY)
-            .query("maxresults=" + MAX_RESULTS)
-            .query("searchtext=" + city + " " + label)
-            .build().toString();
 
-        RestTemplate restTemplate = new RestTemplate();
-        String json = restTemplate.getForObject(http, String.class);
+    private static RegionPoint point(JsonNode location) {
+        JsonNode position = location.get("NavigationPosition").get(0);
+
+        double latitude = position.get("Latitude").asDouble();
+        double longitude = position.get("Longitude").asDouble();
+
+        return new RegionPoint(latitude, longitude, 100D);
+    }
 
-        JsonNode house;
+    private static boolean hasHouseNumber(JsonNode location) {
+        JsonNode house = location.get("Address").get("HouseNumber");
+        return house != null && !house.isNull();
+    }
 
+    private JsonNode firstResult(String json) {
         try {
-            JsonNode httpResponse = new ObjectMapper().readTree(json);
+            JsonNode httpResponse = objectMapper.readTree(json);
             if (!httpResponse.has("Response"))
                 throw new LocationParseException("MapApi timeout");
 
@@ -116,16 +213,9 @@ public class HereComApi implements MapApi {
             if (!view.has(0))
                 throw new AddressNotFoundException("Address not found");
 
-            house = view.get(0)
-                .get("Result").get(0)
-                .get("Location")
-                .get("Address")
-                .get("HouseNumber");
+            return view.get(0).get("Result").get(0);
         } catch (IOException ex) {
             throw new LocationParseException("Location don't parsed");
         }
-
-        return !house.isNull();
     }
-
 }
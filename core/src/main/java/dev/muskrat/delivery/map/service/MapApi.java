@@ -2,6 +2,10 @@ package dev.muskrat.delivery.map.service;
 
 import dev.muskrat.delivery.map.dao.RegionPoint;
 import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocodeResultDTO;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public interface MapApi {
 
@@ -10,4 +14,36 @@ public interface MapApi {
     AutoCompleteResponseDTO autoComplete(String label);
 
     RegionPoint getPointByAddress(String label);
+
+    // Validity, normalized address and coordinates; remote implementations do it in one call
+    default GeocodeResultDTO geocode(String city, String label) {
+        boolean valid = isValidAddress(city, label);
+        String address = city + " " + label;
+        return new GeocodeResultDTO(valid, address, getPointByAddress(address));
+    }
+
+    // Implementations without their own I/O answer on the calling thread
+    default CompletableFuture<Boolean> isValidAddressAsync(String city, String label) {
+        return completed(() -> isValidAddress(city, label));
+    }
+
+    default CompletableFuture<AutoCompleteResponseDTO> autoCompleteAsync(String label) {
+        return completed(() -> autoComplete(label));
+    }
+
+    default CompletableFuture<RegionPoint> getPointByAddressAsync(String label) {
+        return completed(() -> getPointByAddress(label));
+    }
+
+    default CompletableFuture<GeocodeResultDTO> geocodeAsync(String city, String label) {
+        return completed(() -> geocode(city, label));
+    }
+
+    private static <T> CompletableFuture<T> completed(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.completedFuture(supplier.get());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
 }
@@ -2,19 +2,32 @@ package dev.muskrat.delivery.map.service;
 
 import dev.muskrat.delivery.map.dao.RegionPoint;
 import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocodeCacheStatsDTO;
+import dev.muskrat.delivery.map.dto.GeocodeResultDTO;
+import dev.muskrat.delivery.map.dto.GeocoderStatsDTO;
 import dev.muskrat.delivery.map.dto.RegionDTO;
 import dev.muskrat.delivery.map.dto.RegionUpdateDTO;
 import dev.muskrat.delivery.map.dto.RegionUpdateResponseDTO;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface MappingService {
 
     AutoCompleteResponseDTO autoComplete(String label);
 
     RegionPoint getPointByAddress(String label);
 
+    CompletableFuture<RegionPoint> getPointByAddressAsync(String label);
+
     RegionUpdateResponseDTO updateRegion(RegionUpdateDTO regionUpdateDTO);
 
     boolean isValidAddress(String city, String label);
 
+    GeocodeResultDTO geocode(String city, String label);
+
     RegionDTO findShopRegion(Long shopId);
+
+    GeocodeCacheStatsDTO geocodeCacheStats();
+
+    GeocoderStatsDTO geocoderStats();
 }
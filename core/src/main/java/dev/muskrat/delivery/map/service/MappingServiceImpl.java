@@ -5,10 +5,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.muskrat.delivery.components.exception.AddressNotFoundException;
 import dev.muskrat.delivery.components.exception.EntityNotFoundException;
 import dev.muskrat.delivery.components.exception.LocationParseException;
+import dev.muskrat.delivery.map.components.RegionIndex;
 import dev.muskrat.delivery.map.dao.RegionDelivery;
 import dev.muskrat.delivery.map.dao.RegionDeliveryRepository;
 import dev.muskrat.delivery.map.dao.RegionPoint;
 import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocodeCacheStatsDTO;
+import dev.muskrat.delivery.map.dto.GeocodeResultDTO;
+import dev.muskrat.delivery.map.dto.GeocoderStatsDTO;
 import dev.muskrat.delivery.map.dto.RegionDTO;
 import dev.muskrat.delivery.map.dto.RegionUpdateDTO;
 import dev.muskrat.delivery.map.dto.RegionUpdateResponseDTO;
@@ -27,14 +31,18 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class MappingServiceImpl implements MappingService {
 
     private final MapApi mapApi;
+    private final CachingMapApi cachingMapApi;
+    private final ResilientMapApi resilientHereComApi;
     private final ShopRepository shopRepository;
     private final RegionDeliveryRepository regionDeliveryRepository;
+    private final RegionIndex regionIndex;
 
     @Override
     public AutoCompleteResponseDTO autoComplete(String label) {
@@ -46,6 +54,11 @@ public class MappingServiceImpl implements MappingService {
         return mapApi.getPointByAddress(label);
     }
 
+    @Override
+    public CompletableFuture<RegionPoint> getPointByAddressAsync(String label) {
+        return mapApi.getPointByAddressAsync(label);
+    }
+
     public RegionUpdateResponseDTO updateRegion(RegionUpdateDTO regionUpdateDTO) {
         Long shopId = regionUpdateDTO.getShopId();
         Optional<Shop> byId = shopRepository.findById(shopId);
@@ -73,6 +86,7 @@ public class MappingServiceImpl implements MappingService {
 
         shop.setRegion(regionDelivery);
         shopRepository.save(shop);
+        regionIndex.update(shopId, regionDelivery);
 
         return RegionUpdateResponseDTO.builder()
             .id(shopId)
@@ -84,6 +98,11 @@ public class MappingServiceImpl implements MappingService {
         return mapApi.isValidAddress(city, label);
     }
 
+    @Override
+    public GeocodeResultDTO geocode(String city, String label) {
+        return mapApi.geocode(city, label);
+    }
+
     @Override
     public RegionDTO findShopRegion(Long shopId) {
         Shop shop = shopRepository.findById(shopId).orElseThrow(
@@ -104,6 +123,16 @@ public class MappingServiceImpl implements MappingService {
             .build();
     }
 
+    @Override
+    public GeocodeCacheStatsDTO geocodeCacheStats() {
+        return cachingMapApi.stats();
+    }
+
+    @Override
+    public GeocoderStatsDTO geocoderStats() {
+        return resilientHereComApi.stats();
+    }
+
     @Bean
     private RegionDelivery getEmptyRegion() {
         RegionDelivery regionDelivery = new RegionDelivery();
@@ -0,0 +1,85 @@
+package dev.muskrat.delivery.map.service;
+
+import dev.muskrat.delivery.components.exception.AddressNotFoundException;
+import dev.muskrat.delivery.map.components.AddressNormalizer;
+import dev.muskrat.delivery.map.components.Gazetteer;
+import dev.muskrat.delivery.map.dao.RegionPoint;
+import dev.muskrat.delivery.map.dto.AutoCompleteElementDTO;
+import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocodeResultDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Geocodes from a local gazetteer file without network I/O.
+ * Without geocode.offline.file every address is reported as not found.
+ */
+@Service
+public class OfflineMapApi implements MapApi {
+
+    @Value("${geocode.offline.file}")
+    private String file;
+
+    @Value("${geocode.complete.maxresults}")
+    private Integer MAX_RESULTS;
+
+    private Gazetteer gazetteer;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (file != null && !file.isBlank())
+            gazetteer = Gazetteer.open(Paths.get(file));
+    }
+
+    @Override
+    public boolean isValidAddress(String city, String label) {
+        if (find(label) < 0 && find(city + " " + label) < 0)
+            throw new AddressNotFoundException("Address not found");
+        return true;
+    }
+
+    @Override
+    public AutoCompleteResponseDTO autoComplete(String label) {
+        if (gazetteer == null)
+            return new AutoCompleteResponseDTO(List.of());
+
+        List<AutoCompleteElementDTO> suggestions = gazetteer
+            .findByPrefix(AddressNormalizer.normalize(label), MAX_RESULTS).stream()
+            .map(index -> AutoCompleteElementDTO.builder().label(gazetteer.label(index)).build())
+            .collect(Collectors.toList());
+        return new AutoCompleteResponseDTO(suggestions);
+    }
+
+    @Override
+    public RegionPoint getPointByAddress(String label) {
+        int index = find(label);
+        if (index < 0)
+            throw new AddressNotFoundException("Address not found");
+        return new RegionPoint(gazetteer.latitude(index), gazetteer.longitude(index), 100D);
+    }
+
+    @Override
+    public GeocodeResultDTO geocode(String city, String label) {
+        int index = find(label);
+        if (index < 0)
+            index = find(city + " " + label);
+        if (index < 0)
+            throw new AddressNotFoundException("Address not found");
+
+        return GeocodeResultDTO.builder()
+            .valid(true)
+            .address(gazetteer.label(index))
+            .point(new RegionPoint(gazetteer.latitude(index), gazetteer.longitude(index), 100D))
+            .build();
+    }
+
+    private int find(String address) {
+        return gazetteer == null ? -1 : gazetteer.find(AddressNormalizer.normalize(address));
+    }
+}
@@ -0,0 +1,132 @@
+package dev.muskrat.delivery.map.service;
+
+import dev.muskrat.delivery.components.exception.LocationParseException;
+import dev.muskrat.delivery.components.exception.MapApiUnavailableException;
+import dev.muskrat.delivery.components.resilience.Bulkhead;
+import dev.muskrat.delivery.components.resilience.CircuitBreaker;
+import dev.muskrat.delivery.map.dao.RegionPoint;
+import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocodeResultDTO;
+import dev.muskrat.delivery.map.dto.GeocoderStatsDTO;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Guards a remote geocoder with a circuit breaker and a bulkhead. Rejected
+ * calls fail fast with MapApiUnavailableException. Only LocationParseException
+ * (timeouts, transport errors) counts as a failure; "not found" is a healthy answer.
+ */
+@RequiredArgsConstructor
+public class ResilientMapApi implements MapApi {
+
+    private final MapApi delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    @Override
+    public boolean isValidAddress(String city, String label) {
+        return call(() -> delegate.isValidAddress(city, label));
+    }
+
+    @Override
+    public AutoCompleteResponseDTO autoComplete(String label) {
+        return call(() -> delegate.autoComplete(label));
+    }
+
+    @Override
+    public RegionPoint getPointByAddress(String label) {
+        return call(() -> delegate.getPointByAddress(label));
+    }
+
+    @Override
+    public GeocodeResultDTO geocode(String city, String label) {
+        return call(() -> delegate.geocode(city, label));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isValidAddressAsync(String city, String label) {
+        return callAsync(() -> delegate.isValidAddressAsync(city, label));
+    }
+
+    @Override
+    public CompletableFuture<AutoCompleteResponseDTO> autoCompleteAsync(String label) {
+        return callAsync(() -> delegate.autoCompleteAsync(label));
+    }
+
+    @Override
+    public CompletableFuture<RegionPoint> getPointByAddressAsync(String label) {
+        return callAsync(() -> delegate.getPointByAddressAsync(label));
+    }
+
+    @Override
+    public CompletableFuture<GeocodeResultDTO> geocodeAsync(String city, String label) {
+        return callAsync(() -> delegate.geocodeAsync(city, label));
+    }
+
+    public GeocoderStatsDTO stats() {
+        return GeocoderStatsDTO.builder()
+            .state(circuitBreaker.getState().name())
+            .opened(circuitBreaker.getOpened())
+            .halfOpened(circuitBreaker.getHalfOpened())
+            .closed(circuitBreaker.getClosed())
+            .circuitRejections(circuitBreaker.getRejected())
+            .bulkheadRejections(bulkhead.getRejected())
+            .bulkheadAvailable(bulkhead.getAvailable())
+            .build();
+    }
+
+    private <T> T call(Supplier<T> supplier) {
+        acquire();
+        try {
+            T result = supplier.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (RuntimeException ex) {
+            record(ex);
+            throw ex;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> supplier) {
+        try {
+            acquire();
+        } catch (MapApiUnavailableException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = supplier.get();
+        } catch (RuntimeException ex) {
+            result = CompletableFuture.failedFuture(ex);
+        }
+
+        return result.whenComplete((value, ex) -> {
+            bulkhead.release();
+            record(ex);
+        });
+    }
+
+    // Bulkhead first, so a half-open probe slot is never taken by a call that then waits
+    private void acquire() {
+        if (!bulkhead.tryAcquire())
+            throw new MapApiUnavailableException("MapApi busy");
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            throw new MapApiUnavailableException("MapApi circuit open");
+        }
+    }
+
+    private void record(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+        if (cause instanceof LocationParseException)
+            circuitBreaker.onFailure();
+        else
+            circuitBreaker.onSuccess();
+    }
+}
@@ -0,0 +1,64 @@
+package dev.muskrat.delivery.order.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.muskrat.delivery.components.converter.ObjectConverter;
+import dev.muskrat.delivery.order.dao.Order;
+import dev.muskrat.delivery.order.dao.OrderView;
+import dev.muskrat.delivery.order.dto.OrderProductDTO;
+import dev.muskrat.delivery.order.dto.OrderStatusEntryDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class OrderTOOrderViewConverter implements ObjectConverter<Order, OrderView> {
+
+    private final ObjectMapper objectMapper;
+    private final OrderStatusTOOrderStatusDTOConverter orderStatusTOOrderStatusDTOConverter;
+    private final OrderProductTOOrderProductDTOConverter orderProductTOOrderProductDTOConverter;
+
+    @Override
+    public OrderView convert(Order order) {
+        List<OrderProductDTO> products = order.getProducts().stream()
+            .map(orderProductTOOrderProductDTOConverter::convert)
+            .collect(Collectors.toList());
+
+        List<OrderStatusEntryDTO> orderStatusLog = new ArrayList<>();
+        if (order.getOrderStatusLog() != null) {
+            orderStatusLog = order.getOrderStatusLog().stream()
+                .map(orderStatusTOOrderStatusDTOConverter::convert)
+                .collect(Collectors.toList());
+        }
+
+        OrderView view = new OrderView();
+        view.setId(order.getId());
+        view.setShopId(order.getShop() == null ? null : order.getShop().getId());
+        view.setCityId(order.getCity() == null ? null : order.getCity().getId());
+        view.setUserId(order.getUser() == null ? null : order.getUser().getId());
+        view.setPhone(order.getPhone());
+        view.setAddress(order.getAddress());
+        view.setName(order.getName());
+        view.setEmail(order.getEmail());
+        view.setComments(order.getComments());
+        view.setCost(order.getCost());
+        view.setCostAndDelivery(order.getCostAndDelivery());
+        view.setStatus(order.getStatus());
+        view.setCreated(order.getCreated());
+        view.setProducts(write(products));
+        view.setStatusLog(write(orderStatusLog));
+        return view;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Order view is not serializable", ex);
+        }
+    }
+}
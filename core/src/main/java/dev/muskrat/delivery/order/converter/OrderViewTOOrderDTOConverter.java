@@ -0,0 +1,52 @@
+package dev.muskrat.delivery.order.converter;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.muskrat.delivery.components.converter.ObjectConverter;
+import dev.muskrat.delivery.order.dao.OrderView;
+import dev.muskrat.delivery.order.dto.OrderDTO;
+import dev.muskrat.delivery.order.dto.OrderProductDTO;
+import dev.muskrat.delivery.order.dto.OrderStatusEntryDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class OrderViewTOOrderDTOConverter implements ObjectConverter<OrderView, OrderDTO> {
+
+    private static final TypeReference<List<OrderProductDTO>> PRODUCTS = new TypeReference<>() {};
+    private static final TypeReference<List<OrderStatusEntryDTO>> STATUS_LOG = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public OrderDTO convert(OrderView view) {
+        return OrderDTO.builder()
+            .id(view.getId())
+            .products(read(view.getProducts(), PRODUCTS))
+            .status(read(view.getStatusLog(), STATUS_LOG))
+            .createdTime(Date.from(view.getCreated()))
+            .shopId(view.getShopId())
+            .name(view.getName())
+            .email(view.getEmail())
+            .phone(view.getPhone())
+            .cost(view.getCost())
+            .costAndDelivery(view.getCostAndDelivery())
+            .address(view.getAddress())
+            .comments(view.getComments())
+            .localStatus(view.getStatus())
+            .build();
+    }
+
+    private <T> List<T> read(String json, TypeReference<List<T>> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Order view is not readable", ex);
+        }
+    }
+}
@@ -15,13 +15,13 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_created_id", columnList = "created, id"))
 @EnableJpaAuditing
 @ToString(of = "id")
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled-sequence")
     private Long id;
 
     @Column(name = "products")
@@ -0,0 +1,20 @@
+package dev.muskrat.delivery.order.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * The columns of an order that statistics fold over, read without loading
+ * the order entity.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderAmount {
+
+    private final Long shopId;
+    private final Instant created;
+    private final Double cost;
+    private final Integer status;
+}
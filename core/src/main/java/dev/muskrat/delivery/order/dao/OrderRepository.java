@@ -1,70 +1,98 @@
 package dev.muskrat.delivery.order.dao;
 
-import dev.muskrat.delivery.cities.dao.City;
 import dev.muskrat.delivery.shop.dao.Shop;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    // Order pages until order_view is built, the same filters as OrderViewRepository
     @Query(
         "SELECT o FROM Order o WHERE" +
             "(:phone is null or o.phone = :phone) and" +
             "(:email is null or o.email = :email) and" +
-            "(:city is null or o.city = :city) and" +
-            "(:shop is null or o.shop = :shop)"
+            "(:cityId is null or o.city.id = :cityId) and" +
+            "(:shopId is null or o.shop.id = :shopId)"
     )
     Page<Order> findWithFilter(
         @Param("phone") String phone,
         @Param("email") String email,
-        @Param("city") City city,
-        @Param("shop") Shop shop,
+        @Param("cityId") Long cityId,
+        @Param("shopId") Long shopId,
         Pageable pageable
     );
 
     @Query(
-        "SELECT SUM(o.cost) FROM Order o " +
-            "WHERE " +
-            "o.shop = :shop and " +
-            "o.created > :startDate and " +
-            "o.created < :endDate and " +
-            "o.status > 0"
+        "SELECT o FROM Order o WHERE" +
+            "(:phone is null or o.phone = :phone) and" +
+            "(:email is null or o.email = :email) and" +
+            "(:cityId is null or o.city.id = :cityId) and" +
+            "(:shopId is null or o.shop.id = :shopId) and" +
+            "(:id is null or o.created < :created or (o.created = :created and o.id < :id)) " +
+            "ORDER BY o.created DESC, o.id DESC"
     )
-    Double getProfitByShop(
-        @Param("startDate") Instant startDate,
-        @Param("endDate") Instant endDate,
-        @Param("shop") Shop shop
+    Slice<Order> findWithFilterBefore(
+        @Param("phone") String phone,
+        @Param("email") String email,
+        @Param("cityId") Long cityId,
+        @Param("shopId") Long shopId,
+        @Param("created") Instant created,
+        @Param("id") Long id,
+        Pageable pageable
     );
 
+    // order_view rebuild pages, keyed by id so a page costs neither an offset nor a count
+    Slice<Order> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
     @Query(
-        "SELECT COUNT(o) FROM Order o " +
+        "SELECT SUM(o.cost) FROM Order o " +
             "WHERE " +
-            "o.shop = :shop and " +
-            "o.created > :startDate and " +
+            "(:shop is null or o.shop = :shop) and " +
+            "o.created >= :startDate and " +
             "o.created < :endDate and " +
             "o.status > 0"
     )
-    Long countOrderByShop(
+    Double getProfitInRange(
         @Param("startDate") Instant startDate,
         @Param("endDate") Instant endDate,
         @Param("shop") Shop shop
     );
 
     @Query(
-        "SELECT SUM(o.cost) FROM Order o " +
+        "SELECT new dev.muskrat.delivery.order.dao.OrderAmount(o.shop.id, o.created, o.cost, o.status) FROM Order o " +
             "WHERE " +
-            "o.created > :startDate and " +
+            "o.created >= :startDate and " +
             "o.created < :endDate and " +
             "o.status > 0"
     )
-    Double getProfit(
+    List<OrderAmount> findAmounts(
         @Param("startDate") Instant startDate,
         @Param("endDate") Instant endDate
     );
+
+    @Query("SELECT MIN(o.created) FROM Order o")
+    Instant findFirstCreated();
+
+    @Query("SELECT MAX(o.created) FROM Order o")
+    Instant findLastCreated();
+
+    @Query("SELECT o.shop.id FROM Order o WHERE o.id = :id")
+    Optional<Long> findShopIdById(
+        @Param("id") Long id
+    );
+
+    // 0 for orders without a registered client
+    @Query("SELECT COALESCE(u.id, 0) FROM Order o LEFT JOIN o.user u WHERE o.id = :id")
+    Optional<Long> findClientIdById(
+        @Param("id") Long id
+    );
 }
@@ -11,7 +11,7 @@ import java.time.Instant;
 public class OrderStatusEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled-sequence")
     private Long id;
 
     @Column(name = "time")
@@ -0,0 +1,78 @@
+package dev.muskrat.delivery.order.dao;
+
+import lombok.Data;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Read model of an order, one flat row holding everything the order pages
+ * return, so listing them needs no joins. Products and the status log are
+ * stored as JSON. Rows are written from the order events and never edited
+ * by hand.
+ */
+@Data
+@Entity
+@Table(name = "order_view", indexes = {
+    @Index(name = "idx_order_view_created_id", columnList = "created, id"),
+    @Index(name = "idx_order_view_shop_created_id", columnList = "shop_id, created, id"),
+    @Index(name = "idx_order_view_city_created_id", columnList = "city_id, created, id"),
+    @Index(name = "idx_order_view_email", columnList = "email"),
+    @Index(name = "idx_order_view_phone", columnList = "phone")
+})
+public class OrderView {
+
+    // Id of the order
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "shop_id")
+    private Long shopId;
+
+    @Column(name = "city_id")
+    private Long cityId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "phone")
+    private String phone;
+
+    @Column(name = "address")
+    private String address;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "comments")
+    private String comments;
+
+    @Column(name = "cost")
+    private Double cost;
+
+    @Column(name = "cost_and_delivery")
+    private Double costAndDelivery;
+
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "created")
+    private Instant created;
+
+    // Unbounded, a large basket or a long status log must not fail the order.
+    // Read as text so PostgreSQL keeps it inline rather than as a large object
+    @Lob
+    @Type(type = "text")
+    @Column(name = "products")
+    private String products;
+
+    @Lob
+    @Type(type = "text")
+    @Column(name = "status_log")
+    private String statusLog;
+}
@@ -0,0 +1,47 @@
+package dev.muskrat.delivery.order.dao;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+
+    @Query(
+        "SELECT v FROM OrderView v WHERE" +
+            "(:phone is null or v.phone = :phone) and" +
+            "(:email is null or v.email = :email) and" +
+            "(:cityId is null or v.cityId = :cityId) and" +
+            "(:shopId is null or v.shopId = :shopId)"
+    )
+    Page<OrderView> findWithFilter(
+        @Param("phone") String phone,
+        @Param("email") String email,
+        @Param("cityId") Long cityId,
+        @Param("shopId") Long shopId,
+        Pageable pageable
+    );
+
+    @Query(
+        "SELECT v FROM OrderView v WHERE" +
+            "(:phone is null or v.phone = :phone) and" +
+            "(:email is null or v.email = :email) and" +
+            "(:cityId is null or v.cityId = :cityId) and" +
+            "(:shopId is null or v.shopId = :shopId) and" +
+            "(:id is null or v.created < :created or (v.created = :created and v.id < :id)) " +
+            "ORDER BY v.created DESC, v.id DESC"
+    )
+    Slice<OrderView> findWithFilterBefore(
+        @Param("phone") String phone,
+        @Param("email") String email,
+        @Param("cityId") Long cityId,
+        @Param("shopId") Long shopId,
+        @Param("created") Instant created,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+}
@@ -20,6 +20,8 @@ public class OrderDTO {
     private Long id;
 
     private List<OrderProductDTO> products;
+    // Priced lines, only in responses that priced the basket
+    private List<OrderProductCostDTO> productCosts;
     private List<OrderStatusEntryDTO> status;
 
     private String phone;
@@ -16,4 +16,5 @@ public class OrderPageDTO {
     private List<OrderDTO> orders;
     private Integer currentPage;
     private Integer lastPage;
+    private String nextCursor;
 }
@@ -31,4 +31,7 @@ public class OrderPageRequestDTO {
 
     @Size(min=6, max=11)
     private String phone;
+
+    // Keyset mode: "" for the first page, then nextCursor of the previous page
+    private String cursor;
 }
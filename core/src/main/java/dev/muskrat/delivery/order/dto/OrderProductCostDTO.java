@@ -0,0 +1,18 @@
+package dev.muskrat.delivery.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderProductCostDTO {
+
+    private Long productId;
+    private Integer count;
+    private Double price;
+    private Double cost;
+}
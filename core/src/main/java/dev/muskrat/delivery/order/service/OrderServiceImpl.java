@@ -1,13 +1,18 @@
 package dev.muskrat.delivery.order.service;
 
+import dev.muskrat.delivery.auth.security.OwnershipIndex;
 import dev.muskrat.delivery.auth.security.jwt.JwtUser;
 import dev.muskrat.delivery.cities.dao.CitiesRepository;
 import dev.muskrat.delivery.cities.dao.City;
 import dev.muskrat.delivery.components.events.order.OrderCreateEvent;
+import dev.muskrat.delivery.components.events.order.OrderStatusUpdateEvent;
 import dev.muskrat.delivery.components.exception.EntityNotFoundException;
 import dev.muskrat.delivery.components.exception.NotCancelableOrderException;
 import dev.muskrat.delivery.components.exception.OrderAmountLowerLowestException;
 import dev.muskrat.delivery.components.exception.OrderProductsIsEmptyException;
+import dev.muskrat.delivery.components.pagination.PageCursor;
+import dev.muskrat.delivery.map.components.RegionIndex;
+import dev.muskrat.delivery.map.dao.CompiledPolygon;
 import dev.muskrat.delivery.map.dao.RegionDelivery;
 import dev.muskrat.delivery.map.dao.RegionPoint;
 import dev.muskrat.delivery.map.service.MappingService;
@@ -15,9 +20,9 @@ import dev.muskrat.delivery.order.converter.OrderCreateDTOTOOrderConverter;
 import dev.muskrat.delivery.order.converter.OrderProductTOOrderProductDTOConverter;
 import dev.muskrat.delivery.order.converter.OrderStatusTOOrderStatusDTOConverter;
 import dev.muskrat.delivery.order.converter.OrderTOOrderDTOConverter;
+import dev.muskrat.delivery.order.converter.OrderViewTOOrderDTOConverter;
 import dev.muskrat.delivery.order.dao.*;
 import dev.muskrat.delivery.order.dto.*;
-import dev.muskrat.delivery.partner.dao.Partner;
 import dev.muskrat.delivery.product.dao.Product;
 import dev.muskrat.delivery.product.dao.ProductRepository;
 import dev.muskrat.delivery.shop.dao.Shop;
@@ -28,7 +33,9 @@ import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
@@ -36,8 +43,10 @@ import javax.transaction.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,27 +54,37 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private final OwnershipIndex ownershipIndex;
     private final MappingService mappingService;
+    private final RegionIndex regionIndex;
     private final OrderRepository orderRepository;
     private final ShopRepository shopRepository;
     private final CitiesRepository citiesRepository;
     private final ProductRepository productRepository;
     private final OrderStatusRepository orderStatusRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final OrderViewService orderViewService;
     private final ApplicationEventPublisher applicationEventPublisher;
     private final OrderCreateDTOTOOrderConverter orderCreateDTOTOOrderConverter;
     private final OrderTOOrderDTOConverter orderTOOrderDTOConverter;
+    private final OrderViewTOOrderDTOConverter orderViewTOOrderDTOConverter;
     private final OrderStatusTOOrderStatusDTOConverter orderStatusTOOrderStatusDTOConverter;
     private final OrderProductTOOrderProductDTOConverter orderProductTOOrderProductDTOConverter;
 
     @Value("${application.order.irrevocable-status}")
     private Integer irrevocableStatus;
 
+    @Value("${application.order.cancelled-status}")
+    private Integer cancelledStatus;
+
     @Override
     public OrderDTO create(OrderCreateDTO orderDTO) {
         Order order = orderCreateDTOTOOrderConverter.convert(orderDTO);
 
-        calculateCost(order, orderDTO.getShopId());
-        RegionDelivery region = calculateRegionDelivery(order, orderDTO);
+        // Geocoding runs while the products are priced
+        CompletableFuture<RegionPoint> point = mappingService.getPointByAddressAsync(order.getAddress());
+        List<OrderProductCostDTO> productCosts = calculateCost(order, orderDTO.getShopId());
+        RegionDelivery region = calculateRegionDelivery(order, orderDTO, point);
         calculateCostDelivery(order, region);
 
         order = orderRepository.save(order);
@@ -73,7 +92,13 @@ public class OrderServiceImpl implements OrderService {
         OrderCreateEvent orderCreateEvent = new OrderCreateEvent(this, order);
         applicationEventPublisher.publishEvent(orderCreateEvent);
 
-        return orderTOOrderDTOConverter.convert(order);
+        // The listener above links the client
+        User client = order.getUser();
+        ownershipIndex.putOrder(order.getId(), order.getShop().getId(), client == null ? null : client.getId());
+
+        OrderDTO created = orderTOOrderDTOConverter.convert(order);
+        created.setProductCosts(productCosts);
+        return created;
     }
 
     @Override
@@ -81,6 +106,9 @@ public class OrderServiceImpl implements OrderService {
         Long id = orderDTO.getId();
         Order order = orderRepository.findById(id)
             .orElseThrow(()-> new EntityNotFoundException("Order with id " + id + " not found"));
+        Integer previousStatus = order.getStatus();
+        Double previousCost = order.getCost();
+        List<OrderProductCostDTO> productCosts = null;
 
         if (orderDTO.getStatus() != null) {
             if (isClient && order.getStatus() >= irrevocableStatus)
@@ -91,7 +119,7 @@ public class OrderServiceImpl implements OrderService {
             orderStatusEntry.setStatus(orderDTO.getStatus());
             orderStatusEntry.setOrder(order);
 
-            orderStatusRepository.save(orderStatusEntry);
+            orderStatusRepository.saveAndFlush(orderStatusEntry);
             order.setStatus(orderDTO.getStatus());
 
         }
@@ -114,13 +142,15 @@ public class OrderServiceImpl implements OrderService {
             if (order.getProducts().size() == 0)
                 throw new OrderProductsIsEmptyException();
 
-            calculateCost(order, order.getShop().getId());
+            productCosts = calculateCost(order, order.getShop().getId());
         }
 
         if (orderDTO.getCostAndDelivery() != null) {
             order.setCostAndDelivery(orderDTO.getCostAndDelivery());
         }
 
+        applicationEventPublisher.publishEvent(new OrderStatusUpdateEvent(this, order, previousStatus, previousCost));
+
         Order updated = orderRepository.save(order);
         Hibernate.initialize(updated.getOrderStatusLog());
 
@@ -139,6 +169,7 @@ public class OrderServiceImpl implements OrderService {
             .costAndDelivery(updated.getCostAndDelivery())
             .status(orderStatusLog)
             .products(products)
+            .productCosts(productCosts)
             .build();
     }
 
@@ -150,71 +181,113 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderPageDTO findAll(OrderPageRequestDTO requestDTO, Pageable pageable) {
-        Shop shop = null;
-        City city = null;
+        Long shopId = null;
+        Long cityId = null;
         String phone = null;
         String email = null;
-        int status = Integer.MAX_VALUE;
 
         if (requestDTO != null) {
-            if (requestDTO.getPhone() != null)
-                phone = requestDTO.getPhone();
-
-            if (requestDTO.getEmail() != null)
-                email = requestDTO.getEmail();
+            phone = requestDTO.getPhone();
+            email = requestDTO.getEmail();
 
             /*if (requestDTO.getActive() != null) {
                 status = requestDTO.getActive() ? ORDERS_NOT_ACTIVE_BEGIN_WITH : status;
             }*/
 
-            if (requestDTO.getCityId() != null) {
-                Long cityId = requestDTO.getCityId();
-                Optional<City> byId = citiesRepository.findById(cityId);
-                if (byId.isEmpty())
-                    throw new EntityNotFoundException("City with id " + cityId + " not found");
-                city = byId.get();
-            }
+            cityId = requestDTO.getCityId();
+            if (cityId != null && !citiesRepository.existsById(cityId))
+                throw new EntityNotFoundException("City with id " + cityId + " not found");
 
-            if (requestDTO.getShopId() != null) {
-                Long shopId = requestDTO.getShopId();
-                Optional<Shop> byId = shopRepository.findById(shopId);
-                if (byId.isEmpty())
-                    throw new EntityNotFoundException("Shop with id " + shopId + " not found");
-                shop = byId.get();
+            shopId = requestDTO.getShopId();
+            if (shopId != null && !shopRepository.existsById(shopId))
+                throw new EntityNotFoundException("Shop with id " + shopId + " not found");
+        }
+
+        if (!orderViewService.isBuilt())
+            return findAllOrders(requestDTO, phone, email, cityId, shopId, pageable);
+
+        OrderPageDTO.OrderPageDTOBuilder builder = OrderPageDTO.builder();
+        List<OrderView> content;
+
+        if (requestDTO != null && requestDTO.getCursor() != null) {
+            PageCursor cursor = PageCursor.decode(requestDTO.getCursor());
+            Slice<OrderView> slice = orderViewRepository.findWithFilterBefore(
+                phone, email, cityId, shopId, cursor.getCreated(), cursor.getId(),
+                PageRequest.of(0, pageable.getPageSize())
+            );
+            content = slice.getContent();
+            if (slice.hasNext()) {
+                OrderView last = content.get(content.size() - 1);
+                builder.nextCursor(new PageCursor(last.getCreated(), last.getId()).encode());
             }
+        } else {
+            Page<OrderView> page = orderViewRepository.findWithFilter(
+                phone, email, cityId, shopId, pageable
+            );
+            content = page.getContent();
+            builder.currentPage(pageable.getPageNumber())
+                .lastPage(page.getTotalPages());
         }
 
-        Page<Order> page = orderRepository.findWithFilter(
-            phone, email, city, shop, pageable
-        );
+        List<OrderDTO> collect = content.stream()
+            .map(orderViewTOOrderDTOConverter::convert)
+            .collect(Collectors.toList());
+
+        return builder
+            .orders(collect)
+            .build();
+    }
+
+    // The same pages read from the orders, for a database whose order_view is not built yet
+    private OrderPageDTO findAllOrders(
+        OrderPageRequestDTO requestDTO,
+        String phone,
+        String email,
+        Long cityId,
+        Long shopId,
+        Pageable pageable
+    ) {
+        OrderPageDTO.OrderPageDTOBuilder builder = OrderPageDTO.builder();
+        List<Order> content;
+
+        if (requestDTO != null && requestDTO.getCursor() != null) {
+            PageCursor cursor = PageCursor.decode(requestDTO.getCursor());
+            Slice<Order> slice = orderRepository.findWithFilterBefore(
+                phone, email, cityId, shopId, cursor.getCreated(), cursor.getId(),
+                PageRequest.of(0, pageable.getPageSize())
+            );
+            content = slice.getContent();
+            if (slice.hasNext()) {
+                Order last = content.get(content.size() - 1);
+                builder.nextCursor(new PageCursor(last.getCreated(), last.getId()).encode());
+            }
+        } else {
+            Page<Order> page = orderRepository.findWithFilter(
+                phone, email, cityId, shopId, pageable
+            );
+            content = page.getContent();
+            builder.currentPage(pageable.getPageNumber())
+                .lastPage(page.getTotalPages());
+        }
 
-        List<Order> content = page.getContent();
         List<OrderDTO> collect = content.stream()
             .map(orderTOOrderDTOConverter::convert)
             .collect(Collectors.toList());
 
-        return OrderPageDTO.builder()
+        return builder
             .orders(collect)
-            .currentPage(pageable.getPageNumber())
-            .lastPage(page.getTotalPages())
             .build();
     }
 
     @Override
     public boolean isOwnerByOrder(Authentication authentication, Long orderId) {
+        if (orderId == null)
+            return false;
+
         JwtUser jwtUser = (JwtUser) authentication.getPrincipal();
-        String username = jwtUser.getEmail();
-
-        Optional<Order> byId = orderRepository.findById(orderId);
-        if (byId.isEmpty())
-            throw new EntityNotFoundException("Order with id " + orderId + " not found");
-        Order order = byId.get();
-        Shop shop = order.getShop();
-        Partner partner = shop.getPartner();
-        User user = partner.getUser();
-        String email = user.getEmail();
-
-        return email.equalsIgnoreCase(username);
+        long shopId = ownershipIndex.getOrderShop(orderId);
+
+        return ownershipIndex.getShopOwner(shopId) == jwtUser.getId();
     }
 
     @Override
@@ -233,7 +306,7 @@ public class OrderServiceImpl implements OrderService {
         return updateStatus(
             OrderUpdateDTO.builder()
                 .id(orderId)
-                .status(11)
+                .status(cancelledStatus)
                 .build()
         , true);
     }
@@ -246,13 +319,7 @@ public class OrderServiceImpl implements OrderService {
         JwtUser jwtUser = (JwtUser) authentication.getPrincipal();
         Long senderId = jwtUser.getId();
 
-        Optional<Order> byId = orderRepository.findById(orderId);
-        if (byId.isEmpty())
-            throw new EntityNotFoundException("Order with id " + orderId + " not found");
-        Order order = byId.get();
-
-        User user = order.getUser();
-        return user.getId().longValue() == senderId;
+        return ownershipIndex.getOrderClient(orderId) == senderId;
     }
 
     @Override
@@ -263,40 +330,53 @@ public class OrderServiceImpl implements OrderService {
         JwtUser jwtUser = (JwtUser) authentication.getPrincipal();
         Long senderId = jwtUser.getId();
 
-        Optional<Shop> byId = shopRepository.findById(shopId);
-        if (byId.isEmpty())
-            throw new EntityNotFoundException("Shop with id " + shopId + " not found");
-        Shop shop = byId.get();
-        Partner partner = shop.getPartner();
-        User user = partner.getUser();
-        Long shopOwnerId = user.getId();
-
-        return shopOwnerId.longValue() == senderId.longValue();
+        return ownershipIndex.getShopOwner(shopId) == senderId;
     }
 
-    private void calculateCost(Order order, long shopId) {
-        List<OrderProduct> products = order.getProducts();
+    private List<OrderProductCostDTO> calculateCost(Order order, long shopId) {
+        List<OrderProductCostDTO> costs = calculateProductsCost(order.getProducts(), shopId);
 
         double orderCost = 0;
+        for (OrderProductCostDTO cost : costs) {
+            orderCost += cost.getCost();
+        }
+        orderCost = new BigDecimal(orderCost).setScale(2, RoundingMode.HALF_EVEN ).doubleValue();
+        order.setCost(orderCost);
+        return costs;
+    }
+
+    private List<OrderProductCostDTO> calculateProductsCost(List<OrderProduct> products, long shopId) {
+        Set<Long> productIds = products.stream()
+            .map(OrderProduct::getProductId)
+            .collect(Collectors.toSet());
+
+        Map<Long, Product> productsById = productRepository.findAllByIds(productIds).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<OrderProductCostDTO> costs = new ArrayList<>(products.size());
         for (OrderProduct orderProduct : products) {
             Long productId = orderProduct.getProductId();
-            Optional<Product> byId = productRepository.findById(productId);
-            if (byId.isEmpty()) {
+            Product product = productsById.get(productId);
+            if (product == null) {
                 throw new EntityNotFoundException("Product with id " + productId + " not found");
             }
 
-            Product product = byId.get();
             if (product.getShop().getId() != shopId) {
                 throw new RuntimeException("Order contains products from two and more shop");
             }
 
-            orderCost += product.getPrice() * orderProduct.getCount();
+            Integer count = orderProduct.getCount();
+            costs.add(OrderProductCostDTO.builder()
+                .productId(productId)
+                .count(count)
+                .price(product.getPrice())
+                .cost(product.getPrice() * count)
+                .build());
         }
-        orderCost = new BigDecimal(orderCost).setScale(2, RoundingMode.HALF_EVEN ).doubleValue();
-        order.setCost(orderCost);
+        return costs;
     }
 
-    private RegionDelivery calculateRegionDelivery(Order order, OrderCreateDTO orderDTO) {
+    private RegionDelivery calculateRegionDelivery(Order order, OrderCreateDTO orderDTO, CompletableFuture<RegionPoint> point) {
         Long shopId = orderDTO.getShopId();
         Shop shop = shopRepository.findById(shopId).orElseThrow(
             () -> new EntityNotFoundException("Shop with id " + shopId + " not found")
@@ -305,11 +385,20 @@ public class OrderServiceImpl implements OrderService {
             () -> new EntityNotFoundException("Region for this shop not found!")
         );
 
-        String address = order.getAddress();
-
-        RegionPoint pointByAddress = mappingService.getPointByAddress(address);
-        boolean regionAvailable = region.isRegionAvailable(pointByAddress);
-        if (!regionAvailable)
+        RegionPoint pointByAddress;
+        try {
+            pointByAddress = point.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException)
+                throw (RuntimeException) ex.getCause();
+            throw ex;
+        }
+        // The index keeps each region compiled, the loaded entity would compile it again.
+        // Only this node's changes reach the index, so it is used only for the region just loaded
+        CompiledPolygon polygon = regionIndex.findPolygon(shopId, region);
+        if (polygon == null)
+            polygon = region.getPolygon();
+        if (!polygon.contains(pointByAddress.getX(), pointByAddress.getY()))
             throw new RuntimeException("Out of delivery area");
 
         City city = shop.getCity();
@@ -0,0 +1,13 @@
+package dev.muskrat.delivery.order.service;
+
+import dev.muskrat.delivery.order.dao.Order;
+
+public interface OrderViewService {
+
+    void save(Order order);
+
+    void rebuild();
+
+    // False until order_view holds every order, the pages read the orders meanwhile
+    boolean isBuilt();
+}
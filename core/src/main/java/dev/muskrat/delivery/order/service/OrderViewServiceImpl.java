@@ -0,0 +1,90 @@
+package dev.muskrat.delivery.order.service;
+
+import dev.muskrat.delivery.order.converter.OrderTOOrderViewConverter;
+import dev.muskrat.delivery.order.dao.Order;
+import dev.muskrat.delivery.order.dao.OrderRepository;
+import dev.muskrat.delivery.order.dao.OrderViewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Keeps order_view in step with the orders. Each write replaces the whole
+ * row from the order, so a missed or repeated event is fixed by the next one.
+ * <p>
+ * Orders written before the view existed have no row until {@link #rebuild()}
+ * runs (POST /admin/orders/rebuild). The view counts as built once it commits,
+ * or once a check finds a row for every order, as after a restart.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderViewServiceImpl implements OrderViewService {
+
+    private final OrderRepository orderRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final OrderTOOrderViewConverter orderTOOrderViewConverter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${application.order.view-rebuild-page}")
+    private int rebuildPage;
+
+    private volatile boolean built;
+
+    @Override
+    public void save(Order order) {
+        orderViewRepository.save(orderTOOrderViewConverter.convert(order));
+    }
+
+    // For orders written around the events, like imports and fixtures. One transaction,
+    // so readers see the old rows until all the new ones are in
+    @Override
+    @Transactional
+    public void rebuild() {
+        orderViewRepository.deleteAllInBatch();
+
+        Slice<Order> page;
+        long after = 0;
+        do {
+            page = orderRepository.findByIdGreaterThanOrderById(after, PageRequest.of(0, rebuildPage));
+            // The table is empty, persist skips the select merge would run for every row
+            for (Order order : page.getContent()) {
+                entityManager.persist(orderTOOrderViewConverter.convert(order));
+                after = order.getId();
+            }
+
+            // Written out and let go, the context only ever holds one page
+            entityManager.flush();
+            entityManager.clear();
+        } while (page.hasNext());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                built = true;
+            }
+        });
+    }
+
+    @Override
+    public boolean isBuilt() {
+        return built;
+    }
+
+    // Views first: rows only exist for orders, so equal counts mean none was missing then
+    @Scheduled(fixedDelayString = "${application.order.view-check-interval}")
+    public void check() {
+        if (!built && orderViewRepository.count() >= orderRepository.count())
+            built = true;
+    }
+}
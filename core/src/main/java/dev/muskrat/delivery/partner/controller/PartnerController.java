@@ -1,6 +1,7 @@
 package dev.muskrat.delivery.partner.controller;
 
 import dev.muskrat.delivery.partner.dto.PartnerRegisterResponseDTO;
+import dev.muskrat.delivery.partner.dto.PartnerShopsStatsDTO;
 import dev.muskrat.delivery.partner.dto.PartnerStatsDTO;
 import dev.muskrat.delivery.partner.service.PartnerService;
 import dev.muskrat.delivery.shop.service.ShopService;
@@ -34,11 +35,21 @@ public class PartnerController {
 
     @ApiOperation("type = daily/weekly/monthly")
     @PostMapping("/stats/{shopId}")
-    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('PARTNER') and shopServiceImpl.isShopOwner(authentication, #shopId)")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('PARTNER') and @shopServiceImpl.isShopOwner(authentication, #shopId)")
     public PartnerStatsDTO stats(
         @RequestParam(value = "type", required = false, defaultValue = "weekly") String type,
         @PathVariable("shopId") Long shopId
     ) throws AccessDeniedException {
         return partnerService.stats(shopId, type);
     }
+
+    @ApiOperation("Stats of every shop of the partner, type = daily/weekly/monthly")
+    @PostMapping("/{userId}/stats")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('PARTNER') and @partnerServiceImpl.isCurrentPartner(authentication, #userId)")
+    public PartnerShopsStatsDTO shopsStats(
+        @RequestParam(value = "type", required = false, defaultValue = "weekly") String type,
+        @PathVariable("userId") Long userId
+    ) {
+        return partnerService.shopsStats(userId, type);
+    }
 }
@@ -0,0 +1,23 @@
+package dev.muskrat.delivery.partner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartnerShopsStatsDTO {
+
+    private List<String> periods;
+
+    private List<ShopSeriesDTO> shops;
+
+    private Double totalProfit;
+
+    private Long totalOrders;
+}
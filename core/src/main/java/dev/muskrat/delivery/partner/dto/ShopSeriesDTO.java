@@ -0,0 +1,28 @@
+package dev.muskrat.delivery.partner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopSeriesDTO {
+
+    private Long id;
+
+    private String name;
+
+    // One value per period of PartnerShopsStatsDTO
+    private List<Double> profits;
+
+    private List<Long> orders;
+
+    private Double totalProfit;
+
+    private Long totalOrders;
+}
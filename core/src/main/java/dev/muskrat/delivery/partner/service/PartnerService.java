@@ -1,6 +1,7 @@
 package dev.muskrat.delivery.partner.service;
 
 import dev.muskrat.delivery.partner.dto.PartnerRegisterResponseDTO;
+import dev.muskrat.delivery.partner.dto.PartnerShopsStatsDTO;
 import dev.muskrat.delivery.partner.dto.PartnerStatsDTO;
 import dev.muskrat.delivery.user.dao.User;
 import org.springframework.security.core.Authentication;
@@ -14,4 +15,6 @@ public interface PartnerService {
     boolean isCurrentPartner(Authentication authentication, Long id);
 
     PartnerStatsDTO stats(Long shopId, String type) throws AccessDeniedException;
+
+    PartnerShopsStatsDTO shopsStats(Long userId, String type);
 }
@@ -2,23 +2,30 @@ package dev.muskrat.delivery.partner.service;
 
 import dev.muskrat.delivery.auth.dao.Role;
 import dev.muskrat.delivery.auth.repository.RoleRepository;
+import dev.muskrat.delivery.auth.security.JwtUserCache;
 import dev.muskrat.delivery.auth.security.jwt.JwtUser;
 import dev.muskrat.delivery.components.exception.EntityNotFoundException;
-import dev.muskrat.delivery.order.dao.OrderRepository;
 import dev.muskrat.delivery.partner.dao.Partner;
 import dev.muskrat.delivery.partner.dao.PartnerRepository;
 import dev.muskrat.delivery.partner.dto.PartnerRegisterResponseDTO;
+import dev.muskrat.delivery.partner.dto.PartnerShopsStatsDTO;
 import dev.muskrat.delivery.partner.dto.PartnerStatsDTO;
+import dev.muskrat.delivery.partner.dto.ShopSeriesDTO;
 import dev.muskrat.delivery.shop.dao.Shop;
+import dev.muskrat.delivery.shop.dao.ShopHourlyStats;
 import dev.muskrat.delivery.shop.dao.ShopRepository;
+import dev.muskrat.delivery.shop.service.ShopHourlyStatsService;
 import dev.muskrat.delivery.user.dao.User;
 import dev.muskrat.delivery.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -26,16 +33,21 @@ import java.time.ZonedDateTime;
 import java.time.format.TextStyle;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PartnerServiceImpl implements PartnerService {
 
+    private final JwtUserCache jwtUserCache;
     private final RoleRepository roleRepository;
     private final PartnerRepository partnerRepository;
     private final UserRepository userRepository;
     private final ShopRepository shopRepository;
-    private final OrderRepository orderRepository;
+    private final ShopHourlyStatsService shopHourlyStatsService;
+
+    @Value("${application.stats.parallel-threshold}")
+    private int parallelThreshold;
 
     @Override
     public PartnerRegisterResponseDTO create(User user) {
@@ -52,6 +64,7 @@ public class PartnerServiceImpl implements PartnerService {
         user.setRoles(roles);
         user.setPartner(partner);
         userRepository.save(user);
+        jwtUserCache.invalidate(user.getId());
 
         return PartnerRegisterResponseDTO.builder()
             .id(user.getId())
@@ -75,85 +88,47 @@ public class PartnerServiceImpl implements PartnerService {
     @Override
     public PartnerStatsDTO stats(Long shopId, String type) {
         try {
-            if (type == null)
-                type = "weekly";
-
             Shop shop = shopRepository.findById(shopId).orElseThrow(
                 () -> new EntityNotFoundException("Shop with id " + shopId + " not found")
             );
-            List<Map<String, Object>> data = new ArrayList<>();
 
-            ZonedDateTime timeA, timePrevA, timeB, timePrevB, end;
-            DecrementZonedDateTime decrement = null;
-            PrintZonedDateTime print = null;
-            ToPreviousZonedDateTime prev = null;
-
-            if (type.equalsIgnoreCase("day")) {
-                timeA = LocalDateTime.now().withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.of("UTC"));
-                timeB = timeA.plus(1, ChronoUnit.HOURS);
-                end = timeA.minus(47, ChronoUnit.HOURS).minus(1, ChronoUnit.SECONDS);
-                decrement = a -> a.minus(1, ChronoUnit.HOURS);
-                print = (a, b) -> "" + a.getHour();
-                prev = a -> a.minus(1, ChronoUnit.DAYS);
-            } else if (type.equalsIgnoreCase("weekly")) {
-                timeA = LocalDate.now().atStartOfDay(ZoneId.of("UTC"));
-                timeB = timeA.plus(1, ChronoUnit.DAYS);
-                end = timeA.minus(13, ChronoUnit.DAYS).minus(1, ChronoUnit.SECONDS);
-                decrement = a -> a.minus(1, ChronoUnit.DAYS);
-                print = (a, b) -> a.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
-                prev = a -> a.minus(7, ChronoUnit.DAYS);
-            } else if (type.equalsIgnoreCase("monthly")) {
-                timeA = LocalDate.now().atStartOfDay(ZoneId.of("UTC"));
-                timeB = timeA.plus(1, ChronoUnit.DAYS);
-                end = timeA.minus(59, ChronoUnit.DAYS).minus(1, ChronoUnit.SECONDS);
-                decrement = a -> a.minus(1, ChronoUnit.DAYS);
-                print = (a, b) -> "" + a.getDayOfMonth();
-                prev = a -> a.minus(30, ChronoUnit.DAYS);
-            } else {
-                throw new RuntimeException("Stats type not valid");
-            }
+            Window window = window(type);
+            int buckets = window.buckets;
 
-            timePrevA = prev.toPrev(timeA);
-            timePrevB = prev.toPrev(timeB);
+            // The previous window directly precedes the current one, so one read of the hourly rollup covers both
+            ZonedDateTime start = window.end.minus(2L * buckets, window.unit);
+            List<ShopHourlyStats> hours = shopHourlyStatsService.findAllByShop(shopId, start.toInstant(), window.end.toInstant());
 
-            Long currentCountOrder = orderRepository.countOrderByShop(
-                timePrevB.toInstant(),
-                timeB.toInstant(),
-                shop
-            );
+            double[] profits = new double[2 * buckets];
+            long[] orders = new long[2];
+            for (ShopHourlyStats hour : hours) {
+                int bucket = window.bucket(start, hour.getHour());
+                profits[bucket] += hour.getGross();
+                orders[bucket / buckets] += hour.getOrders();
+            }
 
-            PartnerStatsDTO partnerStatsDTO = new PartnerStatsDTO();
-            Double profit = 0D, currentPeriodProfit = 0D, previousPeriodProfit = 0D;
-            while (timePrevA.isAfter(end)) {
+            List<Map<String, Object>> data = new ArrayList<>();
+            double currentPeriodProfit = 0D, previousPeriodProfit = 0D;
+            for (int i = buckets - 1; i >= 0; i--) {
                 Map<String, Object> period = new HashMap<>();
-                period.put("name", print.print(timeA, timeB));
+                period.put("name", window.name(start, buckets + i));
 
-                profit = orderRepository.getProfitByShop(timeA.toInstant(), timeB.toInstant(), shop);
-                profit = round(profit);
+                double profit = round(profits[buckets + i]);
                 currentPeriodProfit += profit;
                 period.put("current", profit);
 
-                profit = orderRepository.getProfitByShop(timePrevA.toInstant(), timePrevB.toInstant(), shop);
-                profit = round(profit);
+                profit = round(profits[i]);
                 previousPeriodProfit += profit;
                 period.put("previous", profit);
 
                 data.add(period);
-                // break condition
-                timeB = timeA;
-                timeA = decrement.decrement(timeA);
-                timePrevB = timePrevA;
-                timePrevA = decrement.decrement(timePrevA);
             }
-
-            Long previousCountOrder = orderRepository.countOrderByShop(
-                end.toInstant(),
-                timeB.toInstant(),
-                shop
-            );
-
             Collections.reverse(data);
 
+            Long previousCountOrder = orders[0];
+            Long currentCountOrder = orders[1];
+
+            PartnerStatsDTO partnerStatsDTO = new PartnerStatsDTO();
             partnerStatsDTO.setShopName(shop.getName());
             partnerStatsDTO.setShopStats(data);
 
@@ -172,96 +147,129 @@ public class PartnerServiceImpl implements PartnerService {
         }
     }
 
-    protected interface DecrementZonedDateTime {
-        ZonedDateTime decrement(ZonedDateTime time);
-    }
+    @Override
+    @Transactional(readOnly = true)
+    public PartnerShopsStatsDTO shopsStats(Long userId, String type) {
+        User user = userRepository.findById(userId).orElseThrow(
+            () -> new EntityNotFoundException("User with id " + userId + " not found")
+        );
+        Partner partner = user.getPartner();
+        if (partner == null)
+            throw new EntityNotFoundException("User with id " + userId + " is not partner");
+
+        List<Shop> shops = shopRepository.findAllByPartner(partner);
+        Window window = window(type);
+        ZonedDateTime start = window.end.minus(window.buckets, window.unit);
+
+        Map<Long, Integer> rows = new HashMap<>();
+        for (int i = 0; i < shops.size(); i++)
+            rows.put(shops.get(i).getId(), i);
+
+        // Every hour of every shop in one pass, folded into shop x bucket cells
+        ShopSeriesFold.Cells cells = new ShopSeriesFold.Cells();
+        if (!shops.isEmpty()) {
+            try (Stream<ShopHourlyStats> hours = shopHourlyStatsService.streamAllByShops(
+                rows.keySet(), start.toInstant(), window.end.toInstant()
+            )) {
+                hours.forEach(hour -> cells.add(
+                    rows.get(hour.getShopId()) * window.buckets + window.bucket(start, hour.getHour()),
+                    hour.getGross(),
+                    hour.getOrders()
+                ));
+            }
+        }
+        ShopSeriesFold.Series series = ShopSeriesFold.fold(cells, shops.size() * window.buckets, parallelThreshold);
+
+        List<String> periods = new ArrayList<>();
+        for (int i = 0; i < window.buckets; i++)
+            periods.add(window.name(start, i));
+
+        List<ShopSeriesDTO> shopSeries = new ArrayList<>();
+        double totalProfit = 0D;
+        long totalOrders = 0;
+        for (int row = 0; row < shops.size(); row++) {
+            List<Double> profits = new ArrayList<>();
+            List<Long> orders = new ArrayList<>();
+            double shopProfit = 0D;
+            long shopOrders = 0;
+            for (int i = 0; i < window.buckets; i++) {
+                int cell = row * window.buckets + i;
+                double profit = round(series.getProfits()[cell]);
+                profits.add(profit);
+                orders.add(series.getOrders()[cell]);
+                shopProfit += profit;
+                shopOrders += series.getOrders()[cell];
+            }
 
-    protected interface PrintZonedDateTime {
-        String print(ZonedDateTime a, ZonedDateTime b);
-    }
+            Shop shop = shops.get(row);
+            shopSeries.add(ShopSeriesDTO.builder()
+                .id(shop.getId())
+                .name(shop.getName())
+                .profits(profits)
+                .orders(orders)
+                .totalProfit(round(shopProfit))
+                .totalOrders(shopOrders)
+                .build());
+
+            totalProfit += shopProfit;
+            totalOrders += shopOrders;
+        }
 
-    protected interface ToPreviousZonedDateTime {
-        ZonedDateTime toPrev(ZonedDateTime time);
+        return PartnerShopsStatsDTO.builder()
+            .periods(periods)
+            .shops(shopSeries)
+            .totalProfit(round(totalProfit))
+            .totalOrders(totalOrders)
+            .build();
     }
 
-    /*
-    Stats for many shops
-
-    public PartnerStatsDTO stats(User user, String type) throws AccessDeniedException {
-        try {
-            //Partner partner = user.getPartner();
-            //if (partner == null)
-            //    throw new AccessDeniedException("User is not partner");
-
-            if (type == null)
-                type = "weekly";
-
-            System.out.println(type);
-            //List<String> userRoles = user.getRoles().stream().map(Role::getName).collect(Collectors.toList());
-            boolean isAdmin = true; //userRoles.contains("ADMIN");
+    private Window window(String type) {
+        if (type == null || type.equalsIgnoreCase("weekly"))
+            return new Window(
+                LocalDate.now().atStartOfDay(ZoneId.of("UTC")).plus(1, ChronoUnit.DAYS), ChronoUnit.DAYS, 7,
+                a -> a.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH)
+            );
+        if (type.equalsIgnoreCase("day"))
+            return new Window(
+                LocalDateTime.now().withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.of("UTC")).plus(1, ChronoUnit.HOURS),
+                ChronoUnit.HOURS, 24,
+                a -> "" + a.getHour()
+            );
+        if (type.equalsIgnoreCase("monthly"))
+            return new Window(
+                LocalDate.now().atStartOfDay(ZoneId.of("UTC")).plus(1, ChronoUnit.DAYS), ChronoUnit.DAYS, 30,
+                a -> "" + a.getDayOfMonth()
+            );
+        throw new RuntimeException("Stats type not valid");
+    }
 
-            List<Shop> shops = isAdmin ? shopRepository.findAll() : shopRepository.findAll();//shopRepository.findAllByPartner(partner);
-            Map<Long, ShopDTO> dtoStore = new HashMap<>();
-            for (Shop shop : shops) {
-                dtoStore.put(shop.getId(), new ShopDTO(shop.getId(), shop.getName()));
-            }
-            //shops.forEach(shop -> data.put(shop, new ShopDTO(shop.getId(), shop.getName())));
-
-            ZonedDateTime timeA, timeB, end;
-            DecrementZonedDateTime decrement = null;
-            PrintZonedDateTime print = null;
-
-            if (type.equalsIgnoreCase("day")) {
-                timeA = LocalDateTime.now().withMinute(0).withSecond(0).atZone(ZoneId.of("UTC"));
-                timeB = timeA.plus(1, ChronoUnit.HOURS);
-                end = timeA.minus(47, ChronoUnit.HOURS).minus(1, ChronoUnit.SECONDS);
-                decrement = a -> a.minus(1, ChronoUnit.HOURS);
-                print = a -> ZonedDateTime.parse(a.toString());
-            } else if (type.equalsIgnoreCase("weekly")) {
-                timeA = LocalDate.now().atStartOfDay(ZoneId.of("UTC"));
-                timeB = timeA.plus(1, ChronoUnit.DAYS);
-                end = timeA.minus(13, ChronoUnit.DAYS).minus(1, ChronoUnit.SECONDS);
-                decrement = a -> a.minus(1, ChronoUnit.DAYS);
-                print = a -> ZonedDateTime.parse(a.toString());
-            } else if (type.equalsIgnoreCase("monthly")) {
-                timeA = LocalDate.now().atStartOfDay(ZoneId.of("UTC"));
-                timeB = timeA.plus(1, ChronoUnit.DAYS);
-                end = timeA.minus(60, ChronoUnit.DAYS).minus(1, ChronoUnit.SECONDS);
-                decrement = a -> a.minus(1, ChronoUnit.DAYS);
-                print = a -> ZonedDateTime.parse(a.toString());
-            } else {
-                throw new RuntimeException("Stats type not valid");
-            }
+    protected interface PrintZonedDateTime {
+        String print(ZonedDateTime time);
+    }
 
-            PartnerStatsDTO partnerStatsDTO = new PartnerStatsDTO();
-            ShopsPeriodStatsDTO shopsPeriodStatsDTO;
-            while (timeA.isAfter(end)) {
-
-                shopsPeriodStatsDTO = new ShopsPeriodStatsDTO();
-                shopsPeriodStatsDTO.setTitle(print.print(timeA) + " - " + print.print(timeB));
-                Map<ShopDTO, Double> profits = shopsPeriodStatsDTO.getProfits();
-                for (Shop shop : shops) {
-
-                    Double profit = orderRepository.getProfitByShop(timeA.toInstant(), timeB.toInstant(), shop);
-                    profits.put(dtoStore.get(shop.getId()), profit);
-                }
-                partnerStatsDTO.getShopStats().add(shopsPeriodStatsDTO);
-
-                // break condition
-                timeB = timeA;
-                timeA = decrement.decrement(timeA);
-            }
+    // Buckets of one unit ending at end, named by their start
+    private static class Window {
 
+        private final ZonedDateTime end;
+        private final ChronoUnit unit;
+        private final int buckets;
+        private final PrintZonedDateTime print;
 
+        private Window(ZonedDateTime end, ChronoUnit unit, int buckets, PrintZonedDateTime print) {
+            this.end = end;
+            this.unit = unit;
+            this.buckets = buckets;
+            this.print = print;
+        }
 
+        private int bucket(ZonedDateTime start, Instant time) {
+            return (int) ((time.toEpochMilli() - start.toInstant().toEpochMilli()) / unit.getDuration().toMillis());
+        }
 
-            return partnerStatsDTO;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+        private String name(ZonedDateTime start, int bucket) {
+            return print.print(start.plus(bucket, unit));
         }
     }
-    * */
 
     private double round(Double d) {
         return d == null ? 0 : new BigDecimal(d).setScale(2, RoundingMode.HALF_EVEN).doubleValue();
@@ -0,0 +1,95 @@
+package dev.muskrat.delivery.partner.service;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Sums values into a fixed number of cells. Large inputs are split over the
+ * common fork/join pool, every leaf sums its range into its own arrays and
+ * the halves are added together on join, so no cell is ever shared.
+ */
+class ShopSeriesFold {
+
+    private static final int LEAF_SIZE = 8192;
+
+    static Series fold(Cells cells, int size, int parallelThreshold) {
+        FoldTask task = new FoldTask(cells, size, 0, cells.size);
+        return cells.size < parallelThreshold ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    static class Cells {
+
+        private int[] cell = new int[256];
+        private double[] profit = new double[256];
+        private long[] orders = new long[256];
+        private int size;
+
+        void add(int cell, double profit, long orders) {
+            if (size == this.cell.length) {
+                this.cell = Arrays.copyOf(this.cell, size * 2);
+                this.profit = Arrays.copyOf(this.profit, size * 2);
+                this.orders = Arrays.copyOf(this.orders, size * 2);
+            }
+            this.cell[size] = cell;
+            this.profit[size] = profit;
+            this.orders[size] = orders;
+            size++;
+        }
+    }
+
+    @Getter
+    static class Series {
+
+        private final double[] profits;
+        private final long[] orders;
+
+        private Series(int size) {
+            this.profits = new double[size];
+            this.orders = new long[size];
+        }
+
+        private Series add(Series other) {
+            for (int i = 0; i < profits.length; i++) {
+                profits[i] += other.profits[i];
+                orders[i] += other.orders[i];
+            }
+            return this;
+        }
+    }
+
+    private static class FoldTask extends RecursiveTask<Series> {
+
+        private final Cells cells;
+        private final int size;
+        private final int from;
+        private final int to;
+
+        private FoldTask(Cells cells, int size, int from, int to) {
+            this.cells = cells;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Series compute() {
+            if (to - from <= LEAF_SIZE) {
+                Series series = new Series(size);
+                for (int i = from; i < to; i++) {
+                    series.profits[cells.cell[i]] += cells.profit[i];
+                    series.orders[cells.cell[i]] += cells.orders[i];
+                }
+                return series;
+            }
+
+            int middle = (from + to) >>> 1;
+            FoldTask left = new FoldTask(cells, size, from, middle);
+            left.fork();
+            Series right = new FoldTask(cells, size, middle, to).compute();
+            return left.join().add(right);
+        }
+    }
+}
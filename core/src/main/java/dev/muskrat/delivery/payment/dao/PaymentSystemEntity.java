@@ -11,10 +11,6 @@ import java.util.List;
 @Table(name = "paymentSystems")
 public class PaymentSystemEntity extends BaseEntity {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
     @Column(name = "name")
     private String name;
 
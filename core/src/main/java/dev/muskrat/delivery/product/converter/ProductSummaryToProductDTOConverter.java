@@ -0,0 +1,24 @@
+package dev.muskrat.delivery.product.converter;
+
+import dev.muskrat.delivery.components.converter.ObjectConverter;
+import dev.muskrat.delivery.product.dao.ProductSummary;
+import dev.muskrat.delivery.product.dto.ProductDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductSummaryToProductDTOConverter implements ObjectConverter<ProductSummary, ProductDTO> {
+
+    @Override
+    public ProductDTO convert(ProductSummary product) {
+        return ProductDTO.builder()
+            .id(product.getId())
+            .title(product.getTitle())
+            .description(product.getDescription())
+            .price(product.getPrice())
+            .available(product.getAvailable())
+            .value(product.getValue())
+            .category(product.getCategoryId())
+            .shopId(product.getShopId())
+            .build();
+    }
+}
@@ -17,7 +17,7 @@ import java.util.List;
 public class Product {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled-sequence")
     private Long id;
 
     @Column(name = "title")
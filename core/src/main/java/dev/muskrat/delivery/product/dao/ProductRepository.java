@@ -1,38 +1,77 @@
 package dev.muskrat.delivery.product.dao;
 
-import dev.muskrat.delivery.shop.dao.Shop;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    String PRODUCT_SUMMARY = "o.id, o.title, o.description, o.price, o.available, o.value, c.id, s.id";
+
     @Query("SELECT o FROM Product o where (o.id = :id) and deleted=0")
     Optional<Product> findById(
         @Param("id") Long id
     );
 
+    @Query("SELECT o FROM Product o where (o.id in :ids) and deleted=0")
+    List<Product> findAllByIds(
+        @Param("ids") Collection<Long> ids
+    );
+
     @Query(
-        "SELECT o FROM Product o WHERE" +
+        value = "SELECT new dev.muskrat.delivery.product.dao.ProductSummary(" + PRODUCT_SUMMARY + ") " +
+            "FROM Product o LEFT JOIN o.category c LEFT JOIN o.shop s WHERE" +
+            "(:title is null or o.title like :title) and" +
+            "(:categoryId is null or c.id = :categoryId) and" +
+            "(:shopId is null or s.id = :shopId) and" +
+            "(o.price <= :maxPrice and o.price >= :minPrice)",
+        countQuery = "SELECT count(o) FROM Product o LEFT JOIN o.category c LEFT JOIN o.shop s WHERE" +
             "(:title is null or o.title like :title) and" +
-            "(:category is null or o.category = :category) and" +
-            "(:shop is null or o.shop = :shop) and" +
+            "(:categoryId is null or c.id = :categoryId) and" +
+            "(:shopId is null or s.id = :shopId) and" +
             "(o.price <= :maxPrice and o.price >= :minPrice)"
     )
-    Page<Product> findWithFilter(
+    Page<ProductSummary> findWithFilter(
+        @Param("title") String title,
+        @Param("shopId") Long shopId,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice,
+        Pageable pageable
+    );
+
+    @Query(
+        "SELECT new dev.muskrat.delivery.product.dao.ProductSummary(" + PRODUCT_SUMMARY + ") " +
+            "FROM Product o LEFT JOIN o.category c LEFT JOIN o.shop s WHERE" +
+            "(:title is null or o.title like :title) and" +
+            "(:categoryId is null or c.id = :categoryId) and" +
+            "(:shopId is null or s.id = :shopId) and" +
+            "(o.price <= :maxPrice and o.price >= :minPrice) and" +
+            "(:id is null or o.id < :id) " +
+            "ORDER BY o.id DESC"
+    )
+    Slice<ProductSummary> findWithFilterBefore(
         @Param("title") String title,
-        @Param("shop") Shop shop,
-        @Param("category") Category category,
+        @Param("shopId") Long shopId,
+        @Param("categoryId") Long categoryId,
         @Param("minPrice") Double minPrice,
         @Param("maxPrice") Double maxPrice,
+        @Param("id") Long id,
         Pageable pageable
     );
+
+    @Query("SELECT o.shop.id FROM Product o where o.id = :id and o.deleted=0")
+    Optional<Long> findShopIdById(
+        @Param("id") Long id
+    );
 }
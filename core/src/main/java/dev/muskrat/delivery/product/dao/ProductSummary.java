@@ -0,0 +1,22 @@
+package dev.muskrat.delivery.product.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The columns of a product that the product pages show, read without
+ * loading the product's shop and category.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductSummary {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final Double price;
+    private final Boolean available;
+    private final Double value;
+    private final Long categoryId;
+    private final Long shopId;
+}
@@ -16,4 +16,5 @@ public class ProductPageDTO {
     private List<ProductDTO> products;
     private Integer currentPage;
     private Integer lastPage;
+    private String nextCursor;
 }
@@ -28,5 +28,8 @@ public class ProductPageRequestDTO {
 
     @Positive
     private Double maxPrice;
+
+    // Keyset mode: "" for the first page, then nextCursor of the previous page
+    private String cursor;
     // todo add city
 }
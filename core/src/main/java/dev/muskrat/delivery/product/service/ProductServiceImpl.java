@@ -1,24 +1,28 @@
 package dev.muskrat.delivery.product.service;
 
+import dev.muskrat.delivery.auth.security.OwnershipIndex;
 import dev.muskrat.delivery.auth.security.jwt.JwtUser;
 import dev.muskrat.delivery.components.exception.EntityNotFoundException;
+import dev.muskrat.delivery.components.pagination.PageCursor;
 import dev.muskrat.delivery.files.components.FileFormat;
 import dev.muskrat.delivery.files.components.FileFormats;
 import dev.muskrat.delivery.files.dto.FileStorageUploadDTO;
 import dev.muskrat.delivery.files.service.FileStorageService;
-import dev.muskrat.delivery.partner.dao.Partner;
+import dev.muskrat.delivery.product.converter.ProductSummaryToProductDTOConverter;
 import dev.muskrat.delivery.product.converter.ProductToProductDTOConverter;
 import dev.muskrat.delivery.product.dao.Category;
 import dev.muskrat.delivery.product.dao.CategoryRepository;
 import dev.muskrat.delivery.product.dao.Product;
 import dev.muskrat.delivery.product.dao.ProductRepository;
+import dev.muskrat.delivery.product.dao.ProductSummary;
 import dev.muskrat.delivery.product.dto.*;
 import dev.muskrat.delivery.shop.dao.Shop;
 import dev.muskrat.delivery.shop.dao.ShopRepository;
-import dev.muskrat.delivery.user.dao.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -31,12 +35,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private final OwnershipIndex ownershipIndex;
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ShopRepository shopRepository;
     private final FileStorageService fileStorageService;
     private final FileFormats fileFormats;
     private final ProductToProductDTOConverter productToProductDTOConverter;
+    private final ProductSummaryToProductDTOConverter productSummaryToProductDTOConverter;
 
     public ProductCreateResponseDTO create(ProductCreateDTO productCreateDTO) {
         Product product = new Product();
@@ -60,6 +66,7 @@ public class ProductServiceImpl implements ProductService {
             throw new RuntimeException("Category is not defined");
         product.setCategory(category.get());
         Product productWithId = productRepository.save(product);
+        ownershipIndex.putProduct(productWithId.getId(), productWithId.getShop().getId());
 
         return ProductCreateResponseDTO.builder()
             .id(productWithId.getId())
@@ -73,6 +80,7 @@ public class ProductServiceImpl implements ProductService {
         byId.ifPresentOrElse(p -> {
             p.setDeleted(true);
             productRepository.save(p);
+            ownershipIndex.removeProduct(id);
         }, () -> {
             throw new EntityNotFoundException("Product with id " + id + " not found");
         });
@@ -140,8 +148,8 @@ public class ProductServiceImpl implements ProductService {
         String title = null;
         double minPrice = Double.MIN_VALUE;
         double maxPrice = Double.MAX_VALUE;
-        Shop shop = null;
-        Category category = null;
+        Long shopId = null;
+        Long categoryId = null;
 
         if (requestDTO != null) {
             if (requestDTO.getTitle() != null)
@@ -153,34 +161,42 @@ public class ProductServiceImpl implements ProductService {
             if (requestDTO.getMaxPrice() != null)
                 maxPrice = requestDTO.getMaxPrice();
 
-            if (requestDTO.getShopId() != null) {
-                Long shopId = requestDTO.getShopId();
-                Optional<Shop> byId = shopRepository.findById(shopId);
-                if (byId.isEmpty())
-                    throw new EntityNotFoundException("Shop with id " + shopId + " not found");
-                shop = byId.get();
-            }
+            shopId = requestDTO.getShopId();
+            if (shopId != null && !shopRepository.existsById(shopId))
+                throw new EntityNotFoundException("Shop with id " + shopId + " not found");
 
-            if (requestDTO.getCategoryId() != null) {
-                Long categoryId = requestDTO.getCategoryId();
-                Optional<Category> byId = categoryRepository.findById(categoryId);
-                if (byId.isEmpty())
-                    throw new EntityNotFoundException("Category with id " + categoryId + " not found");
-                category = byId.get();
-            }
+            categoryId = requestDTO.getCategoryId();
+            if (categoryId != null && !categoryRepository.existsById(categoryId))
+                throw new EntityNotFoundException("Category with id " + categoryId + " not found");
         }
 
-        Page<Product> page = productRepository.findWithFilter(title, shop, category, minPrice, maxPrice, pageable);
+        ProductPageDTO.ProductPageDTOBuilder builder = ProductPageDTO.builder();
+        List<ProductSummary> content;
+
+        if (requestDTO != null && requestDTO.getCursor() != null) {
+            PageCursor cursor = PageCursor.decode(requestDTO.getCursor());
+            Slice<ProductSummary> slice = productRepository.findWithFilterBefore(
+                title, shopId, categoryId, minPrice, maxPrice, cursor.getId(),
+                PageRequest.of(0, pageable.getPageSize())
+            );
+            content = slice.getContent();
+            if (slice.hasNext()) {
+                ProductSummary last = content.get(content.size() - 1);
+                builder.nextCursor(new PageCursor(last.getId()).encode());
+            }
+        } else {
+            Page<ProductSummary> page = productRepository.findWithFilter(title, shopId, categoryId, minPrice, maxPrice, pageable);
+            content = page.getContent();
+            builder.currentPage(pageable.getPageNumber())
+                .lastPage(page.getTotalPages());
+        }
 
-        List<Product> content = page.getContent();
         List<ProductDTO> collect = content.stream()
-            .map(productToProductDTOConverter::convert)
+            .map(productSummaryToProductDTOConverter::convert)
             .collect(Collectors.toList());
 
-        return ProductPageDTO.builder()
+        return builder
             .products(collect)
-            .currentPage(pageable.getPageNumber())
-            .lastPage(page.getTotalPages())
             .build();
     }
 
@@ -194,20 +210,13 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public boolean isProductOwner(Authentication authentication, Long productId) {
-        Optional<Product> byId = productRepository.findById(productId);
-        if (byId.isEmpty())
-            throw new EntityNotFoundException("Product with id " + productId + " not found");
-        Product product = byId.get();
-
-        Shop shop = product.getShop();
-        Partner partner = shop.getPartner();
-        User user = partner.getUser();
-        String userEmail = user.getEmail();
+        if (productId == null)
+            return false;
 
         JwtUser jwtUser = (JwtUser) authentication.getPrincipal();
-        String jwtUserEmail = jwtUser.getEmail();
+        long shopId = ownershipIndex.getProductShop(productId);
 
-        return userEmail.equalsIgnoreCase(jwtUserEmail);
+        return ownershipIndex.getShopOwner(shopId) == jwtUser.getId();
     }
 
     @Override
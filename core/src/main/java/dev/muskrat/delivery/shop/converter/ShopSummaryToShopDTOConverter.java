@@ -0,0 +1,38 @@
+package dev.muskrat.delivery.shop.converter;
+
+import dev.muskrat.delivery.components.converter.ObjectConverter;
+import dev.muskrat.delivery.shop.dao.ShopSummary;
+import dev.muskrat.delivery.shop.dto.ShopDTO;
+import dev.muskrat.delivery.shop.dto.ShopScheduleDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+
+// The schedule comes out empty, the page fills it from one query for all shops
+@Component
+public class ShopSummaryToShopDTOConverter implements ObjectConverter<ShopSummary, ShopDTO> {
+
+    @Override
+    public ShopDTO convert(ShopSummary shop) {
+        ShopScheduleDTO scheduleDTO = ShopScheduleDTO.builder()
+            .id(shop.getId())
+            .open(new ArrayList<>())
+            .close(new ArrayList<>())
+            .build();
+
+        return ShopDTO.builder()
+            .id(shop.getId())
+            .name(shop.getName())
+            .description(shop.getDescription())
+            .deliveryCost(shop.getDeliveryCost())
+            .minOrderCost(shop.getMinOrderCost())
+            .freeDeliveryCost(shop.getFreeDeliveryCost())
+            .cityId(shop.getCityId())
+            .schedule(scheduleDTO)
+            .address(shop.getAddress())
+            .locationX(shop.getLocationX())
+            .locationY(shop.getLocationY())
+            .partnerId(shop.getPartnerId())
+            .build();
+    }
+}
@@ -2,6 +2,7 @@ package dev.muskrat.delivery.shop.converter;
 
 import dev.muskrat.delivery.components.converter.ObjectConverter;
 import dev.muskrat.delivery.map.dao.RegionDelivery;
+import dev.muskrat.delivery.map.dao.RegionPoint;
 import dev.muskrat.delivery.shop.dao.Shop;
 import dev.muskrat.delivery.shop.dto.ShopDTO;
 import dev.muskrat.delivery.shop.dto.ShopScheduleDTO;
@@ -29,6 +30,7 @@ public class ShopToShopDTOConverter implements ObjectConverter<Shop, ShopDTO> {
             .build();
 
         RegionDelivery region = shop.getRegion();
+        RegionPoint location = shop.getLocation();
 
         return ShopDTO.builder()
             .id(shop.getId())
@@ -40,6 +42,8 @@ public class ShopToShopDTOConverter implements ObjectConverter<Shop, ShopDTO> {
             .cityId(shop.getCity().getId())
             .schedule(scheduleDTO)
             .address(shop.getAddress())
+            .locationX(location == null ? null : location.getX())
+            .locationY(location == null ? null : location.getY())
             .partnerId(shop.getPartner().getId())
             .build();
     }
@@ -2,6 +2,7 @@ package dev.muskrat.delivery.shop.dao;
 
 import dev.muskrat.delivery.cities.dao.City;
 import dev.muskrat.delivery.map.dao.RegionDelivery;
+import dev.muskrat.delivery.map.dao.RegionPoint;
 import dev.muskrat.delivery.order.dao.Order;
 import dev.muskrat.delivery.partner.dao.Partner;
 import dev.muskrat.delivery.product.dao.Product;
@@ -26,7 +27,7 @@ import java.util.List;
 public class Shop {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled-sequence")
     private Long id;
 
     @Column(name = "name")
@@ -60,6 +61,14 @@ public class Shop {
     @Column(name = "address")
     private String address;
 
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "x", column = @Column(name = "location_x")),
+        @AttributeOverride(name = "y", column = @Column(name = "location_y")),
+        @AttributeOverride(name = "z", column = @Column(name = "location_z"))
+    })
+    private RegionPoint location;
+
     @ElementCollection
     @Column(name = "open")
     private List<LocalTime> open;
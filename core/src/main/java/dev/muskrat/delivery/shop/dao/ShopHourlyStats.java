@@ -0,0 +1,38 @@
+package dev.muskrat.delivery.shop.dao;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Orders of a shop rolled up per UTC hour of creation. Like the order
+ * queries, only orders with a status above 0 are counted; gross includes
+ * cancelled orders, net does not.
+ */
+@Data
+@Entity
+@IdClass(ShopHourlyStatsId.class)
+@Table(name = "shop_hourly_stats", indexes = @Index(name = "idx_shop_hourly_stats_hour", columnList = "hour_start"))
+public class ShopHourlyStats {
+
+    @Id
+    @Column(name = "shop_id")
+    private Long shopId;
+
+    @Id
+    @Column(name = "hour_start")
+    private Instant hour;
+
+    @Column(name = "order_count")
+    private long orders;
+
+    @Column(name = "gross")
+    private double gross;
+
+    @Column(name = "net")
+    private double net;
+
+    @Column(name = "cancelled")
+    private long cancelled;
+}
@@ -0,0 +1,17 @@
+package dev.muskrat.delivery.shop.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopHourlyStatsId implements Serializable {
+
+    private Long shopId;
+    private Instant hour;
+}
@@ -0,0 +1,74 @@
+package dev.muskrat.delivery.shop.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ShopHourlyStatsRepository extends JpaRepository<ShopHourlyStats, ShopHourlyStatsId> {
+
+    @Modifying
+    @Query(
+        "UPDATE ShopHourlyStats s SET " +
+            "s.orders = s.orders + :orders, " +
+            "s.gross = s.gross + :gross, " +
+            "s.net = s.net + :net, " +
+            "s.cancelled = s.cancelled + :cancelled " +
+            "WHERE s.shopId = :shopId and s.hour = :hour"
+    )
+    int increment(
+        @Param("shopId") Long shopId,
+        @Param("hour") Instant hour,
+        @Param("orders") long orders,
+        @Param("gross") double gross,
+        @Param("net") double net,
+        @Param("cancelled") long cancelled
+    );
+
+    @Query(
+        "SELECT s FROM ShopHourlyStats s " +
+            "WHERE " +
+            "s.shopId = :shopId and " +
+            "s.hour >= :startHour and " +
+            "s.hour < :endHour"
+    )
+    List<ShopHourlyStats> findAllByShop(
+        @Param("shopId") Long shopId,
+        @Param("startHour") Instant startHour,
+        @Param("endHour") Instant endHour
+    );
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query(
+        "SELECT s FROM ShopHourlyStats s " +
+            "WHERE " +
+            "s.shopId in :shopIds and " +
+            "s.hour >= :startHour and " +
+            "s.hour < :endHour"
+    )
+    Stream<ShopHourlyStats> streamAllByShops(
+        @Param("shopIds") Collection<Long> shopIds,
+        @Param("startHour") Instant startHour,
+        @Param("endHour") Instant endHour
+    );
+
+    @Query(
+        "SELECT SUM(s.gross) FROM ShopHourlyStats s " +
+            "WHERE " +
+            "(:shopId is null or s.shopId = :shopId) and " +
+            "s.hour >= :startHour and " +
+            "s.hour < :endHour"
+    )
+    Double getGross(
+        @Param("shopId") Long shopId,
+        @Param("startHour") Instant startHour,
+        @Param("endHour") Instant endHour
+    );
+}
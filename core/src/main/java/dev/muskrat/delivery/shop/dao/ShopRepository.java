@@ -1,21 +1,25 @@
 package dev.muskrat.delivery.shop.dao;
 
-import dev.muskrat.delivery.cities.dao.City;
 import dev.muskrat.delivery.partner.dao.Partner;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ShopRepository extends JpaRepository<Shop, Long> {
 
+    String SHOP_SUMMARY = "o.id, o.name, o.description, o.address, o.location.x, o.location.y, c.id, p.id, " +
+        "r.deliveryCost, r.minOrderCost, r.freeDeliveryCost";
+
     @Query("SELECT o FROM Shop o where (o.id = :id) and deleted=0")
     Optional<Shop> findById(
         @Param("id") Long id
@@ -23,6 +27,9 @@ public interface ShopRepository extends JpaRepository<Shop, Long> {
 
     Optional<Shop> findByName(String name);
 
+    @Query("SELECT o FROM Shop o where o.location.x is null and deleted=0")
+    List<Shop> findAllWithoutLocation();
+
     @EntityGraph(attributePaths = { "products" }, type = EntityGraph.EntityGraphType.LOAD)
     @Override
     List<Shop> findAll();
@@ -30,15 +37,87 @@ public interface ShopRepository extends JpaRepository<Shop, Long> {
     Page<Shop> findAll(Pageable pageable);
 
     @Query(
-        "SELECT o FROM Shop o WHERE" +
+        value = "SELECT new dev.muskrat.delivery.shop.dao.ShopSummary(" + SHOP_SUMMARY + ") " +
+            "FROM Shop o LEFT JOIN o.city c LEFT JOIN o.partner p LEFT JOIN o.region r WHERE" +
+            "(:name is null or o.name like :name) and" +
+            "(:cityId is null or c.id = :cityId)",
+        countQuery = "SELECT count(o) FROM Shop o LEFT JOIN o.city c WHERE" +
             "(:name is null or o.name like :name) and" +
-            "(:city is null or o.city = :city)"
+            "(:cityId is null or c.id = :cityId)"
     )
-    Page<Shop> findWithFilter(
+    Page<ShopSummary> findWithFilter(
         @Param("name") String name,
-        @Param("city") City city,
+        @Param("cityId") Long cityId,
         Pageable pageable
     );
 
+    @Query(
+        "SELECT new dev.muskrat.delivery.shop.dao.ShopSummary(" + SHOP_SUMMARY + ") " +
+            "FROM Shop o LEFT JOIN o.city c LEFT JOIN o.partner p LEFT JOIN o.region r WHERE" +
+            "(:name is null or o.name like :name) and" +
+            "(:cityId is null or c.id = :cityId) and" +
+            "(:id is null or o.id < :id) " +
+            "ORDER BY o.id DESC"
+    )
+    Slice<ShopSummary> findWithFilterBefore(
+        @Param("name") String name,
+        @Param("cityId") Long cityId,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @Query(
+        value = "SELECT new dev.muskrat.delivery.shop.dao.ShopSummary(" + SHOP_SUMMARY + ") " +
+            "FROM Shop o LEFT JOIN o.city c LEFT JOIN o.partner p LEFT JOIN o.region r WHERE" +
+            "(o.id in :ids) and" +
+            "(:name is null or o.name like :name) and" +
+            "(:cityId is null or c.id = :cityId)",
+        countQuery = "SELECT count(o) FROM Shop o LEFT JOIN o.city c WHERE" +
+            "(o.id in :ids) and" +
+            "(:name is null or o.name like :name) and" +
+            "(:cityId is null or c.id = :cityId)"
+    )
+    Page<ShopSummary> findWithFilterIn(
+        @Param("name") String name,
+        @Param("cityId") Long cityId,
+        @Param("ids") Collection<Long> ids,
+        Pageable pageable
+    );
+
+    @Query(
+        "SELECT new dev.muskrat.delivery.shop.dao.ShopSummary(" + SHOP_SUMMARY + ") " +
+            "FROM Shop o LEFT JOIN o.city c LEFT JOIN o.partner p LEFT JOIN o.region r WHERE" +
+            "(o.id in :ids) and" +
+            "(:name is null or o.name like :name) and" +
+            "(:cityId is null or c.id = :cityId) and" +
+            "(:id is null or o.id < :id) " +
+            "ORDER BY o.id DESC"
+    )
+    Slice<ShopSummary> findWithFilterInBefore(
+        @Param("name") String name,
+        @Param("cityId") Long cityId,
+        @Param("ids") Collection<Long> ids,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @Query("SELECT new dev.muskrat.delivery.shop.dao.ShopTime(o.id, t) FROM Shop o JOIN o.open t WHERE o.id in :ids")
+    List<ShopTime> findOpenByIds(
+        @Param("ids") Collection<Long> ids
+    );
+
+    @Query("SELECT new dev.muskrat.delivery.shop.dao.ShopTime(o.id, t) FROM Shop o JOIN o.close t WHERE o.id in :ids")
+    List<ShopTime> findCloseByIds(
+        @Param("ids") Collection<Long> ids
+    );
+
+    @Query("SELECT o FROM Shop o JOIN FETCH o.region where o.deleted=0")
+    List<Shop> findAllWithRegion();
+
     List<Shop> findAllByPartner(Partner partner);
+
+    @Query("SELECT u.id FROM Shop o JOIN o.partner p JOIN p.user u where o.id = :id and o.deleted=0")
+    Optional<Long> findOwnerIdById(
+        @Param("id") Long id
+    );
 }
@@ -0,0 +1,25 @@
+package dev.muskrat.delivery.shop.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The columns of a shop that the shop pages show, read in the page query
+ * itself instead of loading the shop with its partner, city and region.
+ */
+@Getter
+@AllArgsConstructor
+public class ShopSummary {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String address;
+    private final Double locationX;
+    private final Double locationY;
+    private final Long cityId;
+    private final Long partnerId;
+    private final Double deliveryCost;
+    private final Double minOrderCost;
+    private final Double freeDeliveryCost;
+}
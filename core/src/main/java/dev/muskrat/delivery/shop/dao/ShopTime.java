@@ -0,0 +1,15 @@
+package dev.muskrat.delivery.shop.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalTime;
+
+// One opening or closing time of a shop, for loading the schedules of a page at once
+@Getter
+@AllArgsConstructor
+public class ShopTime {
+
+    private final Long shopId;
+    private final LocalTime time;
+}
@@ -16,6 +16,8 @@ public class ShopDTO {
     private Long partnerId;
     private String name;
     private String address;
+    private Double locationX;
+    private Double locationY;
     private String description;
     private Double deliveryCost;
     private Double minOrderCost;
@@ -17,4 +17,5 @@ public class ShopPageDTO {
     private List<ShopDTO> shops;
     private Integer currentPage;
     private Integer lastPage;
+    private String nextCursor;
 }
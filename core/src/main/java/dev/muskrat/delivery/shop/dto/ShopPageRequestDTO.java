@@ -27,4 +27,7 @@ public class ShopPageRequestDTO {
     private Double maxFreeOrderPrice;
 
     private String deliveryFor;
+
+    // Keyset mode: "" for the first page, then nextCursor of the previous page
+    private String cursor;
 }
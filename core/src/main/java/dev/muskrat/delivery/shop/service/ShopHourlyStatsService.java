@@ -0,0 +1,27 @@
+package dev.muskrat.delivery.shop.service;
+
+import dev.muskrat.delivery.order.dao.Order;
+import dev.muskrat.delivery.shop.dao.Shop;
+import dev.muskrat.delivery.shop.dao.ShopHourlyStats;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ShopHourlyStatsService {
+
+    void add(Order order);
+
+    void update(Order order, Integer previousStatus, Double previousCost);
+
+    void rebuild();
+
+    List<ShopHourlyStats> findAllByShop(Long shopId, Instant startHour, Instant endHour);
+
+    // Must be consumed and closed inside a transaction
+    Stream<ShopHourlyStats> streamAllByShops(Collection<Long> shopIds, Instant startHour, Instant endHour);
+
+    // Sum of order costs, shop null for every shop
+    Double getProfit(Shop shop, Instant startDate, Instant endDate);
+}
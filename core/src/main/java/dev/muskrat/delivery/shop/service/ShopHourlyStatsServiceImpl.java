@@ -0,0 +1,193 @@
+package dev.muskrat.delivery.shop.service;
+
+import dev.muskrat.delivery.order.dao.Order;
+import dev.muskrat.delivery.order.dao.OrderAmount;
+import dev.muskrat.delivery.order.dao.OrderRepository;
+import dev.muskrat.delivery.shop.dao.Shop;
+import dev.muskrat.delivery.shop.dao.ShopHourlyStats;
+import dev.muskrat.delivery.shop.dao.ShopHourlyStatsId;
+import dev.muskrat.delivery.shop.dao.ShopHourlyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps shop_hourly_stats in step with the orders: every create or update
+ * adds the difference between the new and the old contribution of the order
+ * to its hour, so reading a range costs the same however many orders it has.
+ */
+@Service
+@RequiredArgsConstructor
+public class ShopHourlyStatsServiceImpl implements ShopHourlyStatsService {
+
+    private final ShopHourlyStatsRepository shopHourlyStatsRepository;
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${application.order.cancelled-status}")
+    private Integer cancelledStatus;
+
+    @Value("${application.stats.rebuild-chunk}")
+    private Duration rebuildChunk;
+
+    @Override
+    public void add(Order order) {
+        apply(order, Contribution.NONE);
+    }
+
+    @Override
+    public void update(Order order, Integer previousStatus, Double previousCost) {
+        apply(order, contribution(previousStatus, previousCost));
+    }
+
+    // Meant for backfilling history, updates committed while it runs can be lost
+    @Override
+    @Transactional
+    public void rebuild() {
+        shopHourlyStatsRepository.deleteAllInBatch();
+
+        Instant first = orderRepository.findFirstCreated();
+        Instant last = orderRepository.findLastCreated();
+        if (first == null)
+            return;
+
+        Instant end = last.truncatedTo(ChronoUnit.HOURS).plus(1, ChronoUnit.HOURS);
+        for (Instant start = first.truncatedTo(ChronoUnit.HOURS); start.isBefore(end); start = start.plus(rebuildChunk)) {
+            Map<ShopHourlyStatsId, ShopHourlyStats> hours = new HashMap<>();
+            for (OrderAmount amount : orderRepository.findAmounts(start, start.plus(rebuildChunk))) {
+                Instant hour = amount.getCreated().truncatedTo(ChronoUnit.HOURS);
+                ShopHourlyStats stats = hours.computeIfAbsent(
+                    new ShopHourlyStatsId(amount.getShopId(), hour),
+                    id -> bucket(id.getShopId(), id.getHour())
+                );
+
+                Contribution contribution = contribution(amount.getStatus(), amount.getCost());
+                stats.setOrders(stats.getOrders() + contribution.orders);
+                stats.setCancelled(stats.getCancelled() + contribution.cancelled);
+                stats.setGross(stats.getGross() + contribution.gross);
+                stats.setNet(stats.getNet() + contribution.net);
+            }
+            shopHourlyStatsRepository.saveAll(hours.values());
+        }
+    }
+
+    @Override
+    public List<ShopHourlyStats> findAllByShop(Long shopId, Instant startHour, Instant endHour) {
+        return shopHourlyStatsRepository.findAllByShop(shopId, startHour, endHour);
+    }
+
+    @Override
+    public Stream<ShopHourlyStats> streamAllByShops(Collection<Long> shopIds, Instant startHour, Instant endHour) {
+        return shopHourlyStatsRepository.streamAllByShops(shopIds, startHour, endHour);
+    }
+
+    // Whole hours come from the rollup, the partial hours at either end from the orders
+    @Override
+    public Double getProfit(Shop shop, Instant startDate, Instant endDate) {
+        if (startDate == null || endDate == null)
+            return null;
+
+        Instant firstHour = startDate.truncatedTo(ChronoUnit.HOURS);
+        if (firstHour.isBefore(startDate))
+            firstHour = firstHour.plus(1, ChronoUnit.HOURS);
+        Instant lastHour = endDate.truncatedTo(ChronoUnit.HOURS);
+
+        if (!firstHour.isBefore(lastHour))
+            return orderRepository.getProfitInRange(startDate, endDate, shop);
+
+        Double profit = shopHourlyStatsRepository.getGross(shop == null ? null : shop.getId(), firstHour, lastHour);
+        if (startDate.isBefore(firstHour))
+            profit = sum(profit, orderRepository.getProfitInRange(startDate, firstHour, shop));
+        if (lastHour.isBefore(endDate))
+            profit = sum(profit, orderRepository.getProfitInRange(lastHour, endDate, shop));
+        return profit;
+    }
+
+    private void apply(Order order, Contribution before) {
+        Contribution after = contribution(order.getStatus(), order.getCost());
+
+        long orders = after.orders - before.orders;
+        long cancelled = after.cancelled - before.cancelled;
+        double gross = after.gross - before.gross;
+        double net = after.net - before.net;
+        if (orders == 0 && cancelled == 0 && gross == 0 && net == 0)
+            return;
+
+        Long shopId = order.getShop().getId();
+        Instant hour = order.getCreated().truncatedTo(ChronoUnit.HOURS);
+        if (shopHourlyStatsRepository.increment(shopId, hour, orders, gross, net, cancelled) > 0)
+            return;
+
+        createBucket(shopId, hour);
+        shopHourlyStatsRepository.increment(shopId, hour, orders, gross, net, cancelled);
+    }
+
+    // Committed on its own so concurrent first writers to an hour meet on the primary key
+    private void createBucket(Long shopId, Instant hour) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.execute(status -> {
+                if (!shopHourlyStatsRepository.existsById(new ShopHourlyStatsId(shopId, hour)))
+                    shopHourlyStatsRepository.saveAndFlush(bucket(shopId, hour));
+                return null;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another order created the same hour first
+        }
+    }
+
+    private Contribution contribution(Integer status, Double cost) {
+        if (status == null || status <= 0)
+            return Contribution.NONE;
+
+        double amount = cost == null ? 0 : cost;
+        return status.equals(cancelledStatus) ?
+            new Contribution(1, 1, amount, 0) : new Contribution(1, 0, amount, amount);
+    }
+
+    private static ShopHourlyStats bucket(Long shopId, Instant hour) {
+        ShopHourlyStats stats = new ShopHourlyStats();
+        stats.setShopId(shopId);
+        stats.setHour(hour);
+        return stats;
+    }
+
+    private static Double sum(Double a, Double b) {
+        if (a == null)
+            return b;
+        return b == null ? a : a + b;
+    }
+
+    // What one order adds to the row of its hour
+    private static class Contribution {
+
+        private static final Contribution NONE = new Contribution(0, 0, 0, 0);
+
+        private final long orders;
+        private final long cancelled;
+        private final double gross;
+        private final double net;
+
+        private Contribution(long orders, long cancelled, double gross, double net) {
+            this.orders = orders;
+            this.cancelled = cancelled;
+            this.gross = gross;
+            this.net = net;
+        }
+    }
+}
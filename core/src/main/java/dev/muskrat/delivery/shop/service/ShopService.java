@@ -31,4 +31,6 @@ public interface ShopService {
     ShopStatsResponseDTO stats(ShopStatsDTO shopStatsDTO);
 
     ShopCreateResponseDTO createWithPartner(ShopCreateDTO shopCreateDTO);
+
+    void locate();
 }
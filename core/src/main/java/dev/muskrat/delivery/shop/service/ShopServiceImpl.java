@@ -1,30 +1,40 @@
 package dev.muskrat.delivery.shop.service;
 
+import dev.muskrat.delivery.auth.security.OwnershipIndex;
 import dev.muskrat.delivery.auth.security.jwt.JwtUser;
 import dev.muskrat.delivery.cities.dao.CitiesRepository;
 import dev.muskrat.delivery.cities.dao.City;
 import dev.muskrat.delivery.components.exception.AddressNotFoundException;
 import dev.muskrat.delivery.components.exception.EntityExistException;
 import dev.muskrat.delivery.components.exception.EntityNotFoundException;
+import dev.muskrat.delivery.components.exception.LocationParseException;
+import dev.muskrat.delivery.components.pagination.PageCursor;
 import dev.muskrat.delivery.files.components.FileFormat;
 import dev.muskrat.delivery.files.components.FileFormats;
 import dev.muskrat.delivery.files.dto.FileStorageUploadDTO;
 import dev.muskrat.delivery.files.service.FileStorageService;
+import dev.muskrat.delivery.map.components.RegionIndex;
 import dev.muskrat.delivery.map.dao.RegionDelivery;
 import dev.muskrat.delivery.map.dao.RegionDeliveryRepository;
 import dev.muskrat.delivery.map.dao.RegionPoint;
+import dev.muskrat.delivery.map.dto.GeocodeResultDTO;
 import dev.muskrat.delivery.map.service.MappingService;
-import dev.muskrat.delivery.order.dao.OrderRepository;
 import dev.muskrat.delivery.partner.dao.Partner;
+import dev.muskrat.delivery.shop.converter.ShopSummaryToShopDTOConverter;
 import dev.muskrat.delivery.shop.converter.ShopToShopDTOConverter;
 import dev.muskrat.delivery.shop.dao.Shop;
 import dev.muskrat.delivery.shop.dao.ShopRepository;
+import dev.muskrat.delivery.shop.dao.ShopSummary;
+import dev.muskrat.delivery.shop.dao.ShopTime;
 import dev.muskrat.delivery.shop.dto.*;
 import dev.muskrat.delivery.user.dao.User;
 import dev.muskrat.delivery.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -32,12 +42,8 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.transaction.Transactional;
 import java.time.Instant;
 import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -51,8 +57,11 @@ public class ShopServiceImpl implements ShopService {
     private final CitiesRepository citiesRepository;
     private final FileStorageService fileStorageService;
     private final ShopToShopDTOConverter shopToShopDTOConverter;
+    private final ShopSummaryToShopDTOConverter shopSummaryToShopDTOConverter;
     private final RegionDeliveryRepository regionDeliveryRepository;
-    private final OrderRepository orderRepository;
+    private final RegionIndex regionIndex;
+    private final OwnershipIndex ownershipIndex;
+    private final ShopHourlyStatsService shopHourlyStatsService;
 
     @Override
     public ShopCreateResponseDTO create(ShopCreateDTO shopDTO, Partner partner) {
@@ -95,10 +104,11 @@ public class ShopServiceImpl implements ShopService {
 
         String cityName = city.getName();
         String address = shopDTO.getAddress();
-        boolean validAddress = mappingService.isValidAddress(cityName, address);
-        if (!validAddress)
+        GeocodeResultDTO geocode = mappingService.geocode(cityName, address);
+        if (!geocode.getValid())
             throw new AddressNotFoundException("Address" + cityName + " " + address + " not found exception");
-        shop.setAddress(address);
+        shop.setAddress(resolvedAddress(geocode, address));
+        shop.setLocation(geocode.getPoint());
 
         RegionDelivery regionDelivery = new RegionDelivery();
         regionDelivery.setAbscissa(new ArrayList<>());
@@ -107,6 +117,7 @@ public class ShopServiceImpl implements ShopService {
 
         shop.setRegion(regionDelivery);
         shop = shopRepository.save(shop);
+        ownershipIndex.putShop(shop.getId(), partner.getUser().getId());
 
         return ShopCreateResponseDTO.builder()
                 .id(shop.getId())
@@ -120,6 +131,8 @@ public class ShopServiceImpl implements ShopService {
         byId.ifPresentOrElse(p -> {
             p.setDeleted(true);
             shopRepository.save(p);
+            regionIndex.remove(id);
+            ownershipIndex.removeShop(id);
         }, () -> {
             throw new EntityNotFoundException("Shop with id " + id + " not found");
         });
@@ -129,7 +142,7 @@ public class ShopServiceImpl implements ShopService {
     public ShopPageDTO findAll(ShopPageRequestDTO requestDTO, Pageable pageable) {
 
         String name = null;
-        City city = null;
+        Long cityId = null;
         Double maxMinOrderPrice = Double.MAX_VALUE;
         Double maxFreeOrderPrice = Double.MAX_VALUE;
 
@@ -138,13 +151,9 @@ public class ShopServiceImpl implements ShopService {
                 name = requestDTO.getName();
             }
 
-            if (requestDTO.getCityId() != null) {
-                Long cityId = requestDTO.getCityId();
-                Optional<City> byId = citiesRepository.findById(cityId);
-                if (byId.isEmpty())
-                    throw new EntityNotFoundException("City with " + cityId + " not found");
-                city = byId.get();
-            }
+            cityId = requestDTO.getCityId();
+            if (cityId != null && !citiesRepository.existsById(cityId))
+                throw new EntityNotFoundException("City with " + cityId + " not found");
 
             if (requestDTO.getMaxMinOrderPrice() != null) {
                 maxMinOrderPrice = requestDTO.getMaxMinOrderPrice();
@@ -155,28 +164,66 @@ public class ShopServiceImpl implements ShopService {
             }
         }
 
-        Page<Shop> page = shopRepository.findWithFilter(name, city, pageable);
-
-
-        List<Shop> content = page.getContent();
-        Stream<Shop> stream = content.stream();
-
+        // Spatial filter goes first so pagination only sees delivering shops
+        Set<Long> delivering = null;
         if (requestDTO != null
             && requestDTO.getDeliveryFor() != null
             && !requestDTO.getDeliveryFor().isBlank()
         ) {
             String address = requestDTO.getDeliveryFor();
             RegionPoint point = mappingService.getPointByAddress(address);
-            stream = stream.filter(shop -> shop.getRegion().isRegionAvailable(point));
+            delivering = regionIndex.findShops(point);
+        }
+
+        ShopPageDTO.ShopPageDTOBuilder builder = ShopPageDTO.builder();
+        List<ShopSummary> content;
+
+        if (requestDTO != null && requestDTO.getCursor() != null) {
+            PageCursor cursor = PageCursor.decode(requestDTO.getCursor());
+            Pageable first = PageRequest.of(0, pageable.getPageSize());
+            Slice<ShopSummary> slice;
+            if (delivering == null)
+                slice = shopRepository.findWithFilterBefore(name, cityId, cursor.getId(), first);
+            else if (delivering.isEmpty())
+                slice = new SliceImpl<>(Collections.emptyList());
+            else
+                slice = shopRepository.findWithFilterInBefore(name, cityId, delivering, cursor.getId(), first);
+
+            content = slice.getContent();
+            if (slice.hasNext()) {
+                ShopSummary last = content.get(content.size() - 1);
+                builder.nextCursor(new PageCursor(last.getId()).encode());
+            }
+        } else {
+            Page<ShopSummary> page;
+            if (delivering == null)
+                page = shopRepository.findWithFilter(name, cityId, pageable);
+            else if (delivering.isEmpty())
+                page = Page.empty(pageable);
+            else
+                page = shopRepository.findWithFilterIn(name, cityId, delivering, pageable);
+
+            content = page.getContent();
+            builder.currentPage(pageable.getPageNumber())
+                .lastPage(page.getTotalPages());
         }
 
-        List<ShopDTO> collect = stream.map(shopToShopDTOConverter::convert)
+        List<ShopDTO> collect = content.stream()
+            .map(shopSummaryToShopDTOConverter::convert)
             .collect(Collectors.toList());
 
-        return ShopPageDTO.builder()
+        // Schedules of the whole page in one query per list
+        if (!collect.isEmpty()) {
+            Map<Long, ShopScheduleDTO> schedules = collect.stream()
+                .collect(Collectors.toMap(ShopDTO::getId, ShopDTO::getSchedule));
+            for (ShopTime open : shopRepository.findOpenByIds(schedules.keySet()))
+                schedules.get(open.getShopId()).getOpen().add(open.getTime());
+            for (ShopTime close : shopRepository.findCloseByIds(schedules.keySet()))
+                schedules.get(close.getShopId()).getClose().add(close.getTime());
+        }
+
+        return builder
             .shops(collect)
-            .currentPage(pageable.getPageNumber())
-            .lastPage(page.getTotalPages())
             .build();
     }
 
@@ -219,10 +266,11 @@ public class ShopServiceImpl implements ShopService {
             City city = shop.getCity();
             String cityName = city.getName();
 
-            boolean validAddress = mappingService.isValidAddress(cityName, address);
-            if (!validAddress)
+            GeocodeResultDTO geocode = mappingService.geocode(cityName, address);
+            if (!geocode.getValid())
                 throw new AddressNotFoundException("Address" + cityName + " " + address + " not found exception");
-            shop.setAddress(address);
+            shop.setAddress(resolvedAddress(geocode, address));
+            shop.setLocation(geocode.getPoint());
         }
 
         shopRepository.save(shop);
@@ -267,32 +315,24 @@ public class ShopServiceImpl implements ShopService {
 
     @Override
     public boolean isShopOwner(Authentication authentication, Long id) {
-        JwtUser jwtUser = (JwtUser) authentication.getPrincipal();
-        String username = jwtUser.getEmail();
+        if (id == null)
+            return false;
 
-        Optional<Shop> byId = shopRepository.findById(id);
-        if (byId.isEmpty())
-            throw new EntityNotFoundException("Shop with id not found");
-        Shop shop = byId.get();
-
-        Partner partner = shop.getPartner();
-        User user = partner.getUser();
-        String email = user.getEmail();
-
-        return email.equalsIgnoreCase(username);
+        JwtUser jwtUser = (JwtUser) authentication.getPrincipal();
+        return ownershipIndex.getShopOwner(id) == jwtUser.getId();
     }
 
     @Override
     public ShopStatsResponseDTO stats(ShopStatsDTO shopStatsDTO) {
         Long shopId = shopStatsDTO.getId();
-        Shop shop = shopRepository.findById(4L).orElseThrow(
+        Shop shop = shopRepository.findById(shopId).orElseThrow(
             () -> new EntityNotFoundException("Shop with id " + shopId + " not found")
         );
 
         Instant startDate = shopStatsDTO.getStartDate();
         Instant endDate = shopStatsDTO.getEndDate();
 
-        Double profit = orderRepository.getProfitByShop(startDate, endDate, shop);
+        Double profit = shopHourlyStatsService.getProfit(shop, startDate, endDate);
 
         return ShopStatsResponseDTO.builder()
             .id(shopId)
@@ -315,4 +355,32 @@ public class ShopServiceImpl implements ShopService {
 
         return create(shopCreateDTO, partner);
     }
+
+    // Shops saved before locations were stored, or whose address did not geocode then
+    @Override
+    public void locate() {
+        List<Shop> shops = shopRepository.findAllWithoutLocation();
+        for (Shop shop : shops) {
+            City city = shop.getCity();
+            if (city == null || shop.getAddress() == null)
+                continue;
+
+            try {
+                GeocodeResultDTO geocode = mappingService.geocode(city.getName(), shop.getAddress());
+                if (geocode.getValid()) {
+                    shop.setAddress(resolvedAddress(geocode, shop.getAddress()));
+                    shop.setLocation(geocode.getPoint());
+                }
+            } catch (AddressNotFoundException | LocationParseException ex) {
+                // Left for the next run, the other shops still get located
+            }
+        }
+        shopRepository.saveAll(shops);
+    }
+
+    // The address the geocoder resolved, so it names the place the stored location points at
+    private static String resolvedAddress(GeocodeResultDTO geocode, String address) {
+        String resolved = geocode.getAddress();
+        return resolved == null || resolved.isBlank() ? address : resolved;
+    }
 }
@@ -0,0 +1,42 @@
+package dev.muskrat.delivery.user.converter;
+
+import dev.muskrat.delivery.auth.security.jwt.JwtUser;
+import dev.muskrat.delivery.components.converter.ObjectConverter;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Principal from a verified access token, the subject is the username which is the email
+@Component
+public class ClaimsToJwtUserConverter implements ObjectConverter<Claims, JwtUser> {
+
+    @Override
+    public JwtUser convert(Claims claims) {
+        String subject = claims.getSubject();
+        return new JwtUser(
+            claims.get("id", Long.class),
+            subject,
+            null,
+            null,
+            subject,
+            true,
+            null,
+            mapRolesToGrantedAuthority(claims)
+        );
+    }
+
+    private List<GrantedAuthority> mapRolesToGrantedAuthority(Claims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+
+        Object roles = claims.get("roles");
+        if (roles instanceof List) {
+            for (Object role : (List<?>) roles)
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+        return authorities;
+    }
+}
@@ -5,6 +5,7 @@ import dev.muskrat.delivery.components.exception.JwtAuthenticationException;
 import dev.muskrat.delivery.components.exception.JwtTokenExpiredException;
 import dev.muskrat.delivery.user.dao.User;
 import dev.muskrat.delivery.user.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -23,11 +24,12 @@ public class JwtAuthorizationToUserConverter {
         if (resolveToken == null)
             throw new JwtAuthenticationException("Jwt auth exception");
 
-        if (!jwtTokenProvider.validateRefreshToken(key, resolveToken) &&
-            !jwtTokenProvider.validateAccessToken(key, resolveToken))
+        Claims claims = jwtTokenProvider.verify(resolveToken);
+        if (claims == null ||
+            (!jwtTokenProvider.validateRefreshToken(key, claims) && !jwtTokenProvider.validateAccessToken(key, claims)))
             throw new JwtTokenExpiredException("Token is expired");
 
-        String username = jwtTokenProvider.getUsername(resolveToken);
+        String username = claims.getSubject();
         if (username == null)
             throw new JwtAuthenticationException("Jwt auth exception");
 
@@ -0,0 +1,21 @@
+package dev.muskrat.delivery.user.converter;
+
+import dev.muskrat.delivery.components.converter.ObjectConverter;
+import dev.muskrat.delivery.user.dao.UserSummary;
+import dev.muskrat.delivery.user.dto.UserDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserSummaryToUserDTOConverter implements ObjectConverter<UserSummary, UserDTO> {
+
+    @Override
+    public UserDTO convert(UserSummary user) {
+        return UserDTO.builder()
+            .id(user.getId())
+            .name(user.getName())
+            .email(user.getEmail())
+            .phone(user.getPhone())
+            .cityId(user.getCityId())
+            .build();
+    }
+}
@@ -0,0 +1,19 @@
+package dev.muskrat.delivery.user.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The columns of a user that the user pages show, read without loading the
+ * user's roles, partner and city.
+ */
+@Getter
+@AllArgsConstructor
+public class UserSummary {
+
+    private final Long id;
+    private final Long cityId;
+    private final String name;
+    private final String email;
+    private final String phone;
+}
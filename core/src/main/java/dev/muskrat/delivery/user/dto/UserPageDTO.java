@@ -16,4 +16,5 @@ public class UserPageDTO {
     private List<UserDTO> users;
     private Integer currentPage;
     private Integer lastPage;
+    private String nextCursor;
 }
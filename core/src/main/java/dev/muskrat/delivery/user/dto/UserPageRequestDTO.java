@@ -20,4 +20,7 @@ public class UserPageRequestDTO {
     private String phone;
 
     private String name;
+
+    // Keyset mode: "" for the first page, then nextCursor of the previous page
+    private String cursor;
 }
@@ -1,11 +1,11 @@
 package dev.muskrat.delivery.user.repository;
 
 import dev.muskrat.delivery.auth.dao.Role;
-import dev.muskrat.delivery.cities.dao.City;
-import dev.muskrat.delivery.shop.dao.Shop;
 import dev.muskrat.delivery.user.dao.User;
+import dev.muskrat.delivery.user.dao.UserSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,15 +23,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Long countByRolesLike(Role role);
 
     @Query(
-        "SELECT o FROM User o WHERE" +
+        value = "SELECT new dev.muskrat.delivery.user.dao.UserSummary(o.id, c.id, o.name, o.email, o.phone) " +
+            "FROM User o LEFT JOIN o.city c WHERE" +
             "(:name is null or o.name like :name) and" +
             "(:phone is null or o.phone like :phone) and" +
-            "(:city is null or o.city = :city)"
+            "(:cityId is null or c.id = :cityId)",
+        countQuery = "SELECT count(o) FROM User o LEFT JOIN o.city c WHERE" +
+            "(:name is null or o.name like :name) and" +
+            "(:phone is null or o.phone like :phone) and" +
+            "(:cityId is null or c.id = :cityId)"
+    )
+    Page<UserSummary> findWithFilter(
+        @Param("cityId") Long cityId,
+        @Param("name") String name,
+        @Param("phone") String phone,
+        Pageable pageable
+    );
+
+    @Query(
+        "SELECT new dev.muskrat.delivery.user.dao.UserSummary(o.id, c.id, o.name, o.email, o.phone) " +
+            "FROM User o LEFT JOIN o.city c WHERE" +
+            "(:name is null or o.name like :name) and" +
+            "(:phone is null or o.phone like :phone) and" +
+            "(:cityId is null or c.id = :cityId) and" +
+            "(:id is null or o.id < :id) " +
+            "ORDER BY o.id DESC"
     )
-    Page<User> findWithFilter(
-        @Param("city") City city,
+    Slice<UserSummary> findWithFilterBefore(
+        @Param("cityId") Long cityId,
         @Param("name") String name,
         @Param("phone") String phone,
+        @Param("id") Long id,
         Pageable pageable
     );
 }
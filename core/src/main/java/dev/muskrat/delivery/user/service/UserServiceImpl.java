@@ -3,17 +3,23 @@ package dev.muskrat.delivery.user.service;
 import dev.muskrat.delivery.auth.dao.Role;
 import dev.muskrat.delivery.auth.dao.Status;
 import dev.muskrat.delivery.auth.repository.RoleRepository;
+import dev.muskrat.delivery.auth.security.JwtUserCache;
+import dev.muskrat.delivery.auth.security.PasswordHasher;
 import dev.muskrat.delivery.cities.dao.CitiesRepository;
 import dev.muskrat.delivery.cities.dao.City;
 import dev.muskrat.delivery.components.exception.EntityNotFoundException;
+import dev.muskrat.delivery.components.pagination.PageCursor;
+import dev.muskrat.delivery.user.converter.UserSummaryToUserDTOConverter;
 import dev.muskrat.delivery.user.converter.UserToUserDTOConverter;
 import dev.muskrat.delivery.user.dao.User;
+import dev.muskrat.delivery.user.dao.UserSummary;
 import dev.muskrat.delivery.user.dto.*;
 import dev.muskrat.delivery.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -25,11 +31,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private final JwtUserCache jwtUserCache;
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final CitiesRepository citiesRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final UserToUserDTOConverter userToUserDTOConverter;
+    private final UserSummaryToUserDTOConverter userSummaryToUserDTOConverter;
 
     @Override
     public User register(User user) {
@@ -43,7 +51,7 @@ public class UserServiceImpl implements UserService {
         roles.add(role);
 
         user.setRoles(roles);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getPassword()));
         user.setStatus(Status.ACTIVE);
         user.setUsername(user.getEmail());
 
@@ -94,6 +102,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.save(user);
+        jwtUserCache.invalidate(userId);
 
         return UserUpdateResponseDTO.builder()
             .id(user.getId())
@@ -104,29 +113,43 @@ public class UserServiceImpl implements UserService {
     public UserPageDTO page(UserPageRequestDTO requestDTO, Pageable pageable) {
         String name = null;
         String phone = null;
-        City city = null;
+        Long cityId = null;
 
         if (requestDTO != null) {
             name = requestDTO.getName();
             phone = requestDTO.getPhone();
 
-            if (requestDTO.getCityId() != null) {
-                Long cityId = requestDTO.getCityId();
-                city = citiesRepository.findById(cityId).orElseThrow(
-                    () -> new EntityNotFoundException("City with id " + cityId + " not found")
-                );
+            cityId = requestDTO.getCityId();
+            if (cityId != null && !citiesRepository.existsById(cityId))
+                throw new EntityNotFoundException("City with id " + cityId + " not found");
+        }
+
+        UserPageDTO.UserPageDTOBuilder builder = UserPageDTO.builder();
+        List<UserSummary> content;
+
+        if (requestDTO != null && requestDTO.getCursor() != null) {
+            PageCursor cursor = PageCursor.decode(requestDTO.getCursor());
+            Slice<UserSummary> slice = userRepository.findWithFilterBefore(
+                cityId, name, phone, cursor.getId(), PageRequest.of(0, pageable.getPageSize())
+            );
+            content = slice.getContent();
+            if (slice.hasNext()) {
+                UserSummary last = content.get(content.size() - 1);
+                builder.nextCursor(new PageCursor(last.getId()).encode());
             }
+        } else {
+            Page<UserSummary> query = userRepository.findWithFilter(cityId, name, phone, pageable);
+            content = query.getContent();
+            builder.currentPage(pageable.getPageNumber())
+                .lastPage(query.getTotalPages());
         }
 
-        Page<User> query = userRepository.findWithFilter(city, name, phone, pageable);
-        List<UserDTO> collect = query.get()
-            .map(userToUserDTOConverter::convert)
+        List<UserDTO> collect = content.stream()
+            .map(userSummaryToUserDTOConverter::convert)
             .collect(Collectors.toList());
 
-        return UserPageDTO.builder()
+        return builder
             .users(collect)
-            .currentPage(pageable.getPageNumber())
-            .currentPage(query.getTotalPages())
             .build();
     }
 }
@@ -0,0 +1,51 @@
+package dev.muskrat.delivery;
+
+import dev.muskrat.delivery.map.components.GazetteerBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+/**
+ * Builds the test gazetteer from gazetteer.csv on the classpath and points
+ * geocode.offline.file at it, so the tests geocode without HERE. Registered
+ * through context.initializer.classes in the test application.yml.
+ */
+public class GazetteerInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static Path gazetteer;
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource(
+            "testGazetteer", Map.of("geocode.offline.file", build().toString())
+        ));
+    }
+
+    // Once per JVM, every test context shares the file
+    private static synchronized Path build() {
+        if (gazetteer != null)
+            return gazetteer;
+
+        try (InputStream in = new ClassPathResource("gazetteer.csv").getInputStream()) {
+            Path csv = Files.createTempFile("gazetteer", ".csv");
+            Path output = Files.createTempFile("gazetteer", ".gaz");
+            csv.toFile().deleteOnExit();
+            output.toFile().deleteOnExit();
+
+            Files.copy(in, csv, StandardCopyOption.REPLACE_EXISTING);
+            GazetteerBuilder.build(csv, output);
+            return gazetteer = output;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dev.muskrat.delivery.auth;
+
+import dev.muskrat.delivery.auth.dto.UserLoginDTO;
+import dev.muskrat.delivery.auth.service.AuthorizationService;
+import dev.muskrat.delivery.components.exception.ServiceOverloadedException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Login throughput through AuthorizationService, below the rate limiter.
+ * Skipped unless run on purpose:
+ * <p>
+ * {@code mvn test -Dtest=LoginThroughputBenchmarkTest -Dbenchmark=true [-Dbenchmark.logins=50] [-Dbenchmark.concurrency=200]}
+ * <p>
+ * The sequential run prints the cost of one login. The concurrent run starts
+ * every login at once against the configured password hash pool and prints
+ * how many were served and how many were shed.
+ */
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+public class LoginThroughputBenchmarkTest {
+
+    private static final UserLoginDTO LOGIN = UserLoginDTO.builder()
+        .username("user@gmail.com")
+        .password("test")
+        .build();
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Before
+    public void init() {
+        assumeTrue("Benchmarks run with -Dbenchmark=true", Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void sequentialLoginTest() {
+        int logins = Integer.getInteger("benchmark.logins", 50);
+        for (int i = 0; i < 5; i++)
+            authorizationService.login(LOGIN);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < logins; i++)
+            authorizationService.login(LOGIN);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Sequential: %d logins, %.1f ms per login, %.1f logins/s%n",
+            logins, elapsed / 1e6 / logins, logins * 1e9 / elapsed);
+    }
+
+    @Test
+    public void concurrentLoginTest() throws Exception {
+        int concurrency = Integer.getInteger("benchmark.concurrency", 200);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger served = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        authorizationService.login(LOGIN);
+                        served.incrementAndGet();
+                    } catch (ServiceOverloadedException ex) {
+                        shed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures)
+                future.get();
+            long elapsed = System.nanoTime() - begin;
+
+            System.out.printf("Concurrent: %d logins in %.0f ms, %d served, %d shed with 503%n",
+                concurrency, elapsed / 1e6, served.get(), shed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Anything but success or shedding fails the future above
+        assertEquals(concurrency, served.get() + shed.get());
+    }
+}
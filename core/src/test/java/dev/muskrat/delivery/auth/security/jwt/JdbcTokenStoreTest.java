@@ -0,0 +1,199 @@
+package dev.muskrat.delivery.auth.security.jwt;
+
+import dev.muskrat.delivery.auth.dao.JwtSession;
+import dev.muskrat.delivery.auth.dao.JwtSessionId;
+import dev.muskrat.delivery.auth.dao.TokenStoreVersion;
+import dev.muskrat.delivery.auth.repository.JwtSessionRepository;
+import dev.muskrat.delivery.auth.repository.TokenStoreVersionRepository;
+import dev.muskrat.delivery.components.sql.SqlStatementCounter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+// Same context as the controller tests, a second one would run the migrations on the same database again
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+public class JdbcTokenStoreTest {
+
+    // Far above the demo users, so the sessions here never meet real ones
+    private static final AtomicLong USER_IDS = new AtomicLong(1_000_000L);
+
+    @Autowired
+    private TokenStore tokenStore;
+
+    @Autowired
+    private JwtSessionRepository sessionRepository;
+
+    @Autowired
+    private TokenStoreVersionRepository versionRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${application.jwt.session.max-per-user}")
+    private int maxSessionsPerUser;
+
+    private JdbcTokenStore jdbcTokenStore;
+
+    @Before
+    public void init() {
+        assertTrue(tokenStore instanceof JdbcTokenStore);
+        jdbcTokenStore = (JdbcTokenStore) tokenStore;
+
+        // Removals by earlier tests must not clear the near-cache halfway through this one
+        jdbcTokenStore.poll();
+    }
+
+    @Test
+    public void writeThroughAndNearCacheTest() {
+        long userId = USER_IDS.incrementAndGet();
+        tokenStore.saveToken(userId, new JwtToken("key", "access", "refresh"));
+
+        assertTrue(sessionRepository.existsById(new JwtSessionId(userId, "key")));
+
+        sqlStatementCounter.start();
+        boolean contains = tokenStore.containsKey(userId, "key");
+        JwtToken token = tokenStore.readTokenByKey(userId, "key").orElseThrow();
+        long statements = sqlStatementCounter.stop();
+
+        assertTrue(contains);
+        assertEquals("access", token.getAccess());
+        assertEquals(0, statements);
+    }
+
+    @Test
+    public void removalBumpsVersionTest() {
+        long userId = USER_IDS.incrementAndGet();
+        tokenStore.saveToken(userId, new JwtToken("key", "access", "refresh"));
+        long before = version();
+
+        tokenStore.removeTokenByKey(userId, "key");
+
+        assertEquals(before + 1, version());
+        assertFalse(sessionRepository.existsById(new JwtSessionId(userId, "key")));
+        assertFalse(tokenStore.containsKey(userId, "key"));
+    }
+
+    @Test
+    public void pollClearsNearCacheTest() {
+        long userId = USER_IDS.incrementAndGet();
+        tokenStore.saveToken(userId, new JwtToken("key", "access", "refresh"));
+
+        // Another node logs the session out: the row goes and the version moves
+        new TransactionTemplate(transactionManager).execute(status -> {
+            sessionRepository.deleteByKey(userId, "key");
+            if (versionRepository.increment(TokenStoreVersion.ID) == 0) {
+                TokenStoreVersion version = new TokenStoreVersion();
+                version.setId(TokenStoreVersion.ID);
+                version.setVersion(1L);
+                versionRepository.save(version);
+            }
+            return null;
+        });
+
+        jdbcTokenStore.poll();
+
+        sqlStatementCounter.start();
+        boolean contains = tokenStore.containsKey(userId, "key");
+        long statements = sqlStatementCounter.stop();
+
+        assertFalse(contains);
+        assertTrue(statements > 0);
+    }
+
+    @Test
+    public void sessionLimitEvictsOldestTest() throws Exception {
+        long userId = USER_IDS.incrementAndGet();
+        for (int i = 0; i < maxSessionsPerUser + 2; i++) {
+            tokenStore.saveToken(userId, new JwtToken("key-" + i, "access", "refresh"));
+            Thread.sleep(2);
+        }
+
+        assertEquals(maxSessionsPerUser, tokenStore.findTokensByUserId(userId).size());
+        assertFalse(tokenStore.containsKey(userId, "key-0"));
+        assertFalse(tokenStore.containsKey(userId, "key-1"));
+        assertTrue(tokenStore.containsKey(userId, "key-" + (maxSessionsPerUser + 1)));
+    }
+
+    @Test
+    public void expiredNearCacheRereadsTableTest() throws Exception {
+        long userId = USER_IDS.incrementAndGet();
+        JdbcTokenStore target = AopTestUtils.getUltimateTargetObject(tokenStore);
+        long sessionExpiredTime = (Long) ReflectionTestUtils.getField(target, "sessionExpiredTime");
+        ReflectionTestUtils.setField(target, "sessionExpiredTime", 1L);
+        try {
+            tokenStore.saveToken(userId, new JwtToken("key", "access", "refresh"));
+        } finally {
+            ReflectionTestUtils.setField(target, "sessionExpiredTime", sessionExpiredTime);
+        }
+
+        // Another node refreshes the session, which moves the expiry without a version bump
+        new TransactionTemplate(transactionManager).execute(status -> {
+            JwtSession session = sessionRepository.findById(new JwtSessionId(userId, "key")).orElseThrow();
+            session.setExpires(Instant.now().plusMillis(sessionExpiredTime));
+            return sessionRepository.save(session);
+        });
+        Thread.sleep(5);
+
+        assertTrue(tokenStore.containsKey(userId, "key"));
+        assertEquals("access", tokenStore.readTokenByKey(userId, "key").orElseThrow().getAccess());
+    }
+
+    @Test
+    public void concurrentSessionLimitTest() throws Exception {
+        final int threads = 8;
+        final int logins = 5;
+        long userId = USER_IDS.incrementAndGet();
+
+        // Logins of the same user race to evict the same oldest sessions
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < logins; i++)
+                    tokenStore.saveToken(userId, new JwtToken(thread + "-" + i, "access", "refresh"));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures)
+            future.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Racing logins may overshoot the limit by the ones they could not see, the next login trims it
+        assertTrue(tokenStore.findTokensByUserId(userId).size() < maxSessionsPerUser + threads);
+        tokenStore.saveToken(userId, new JwtToken("last", "access", "refresh"));
+        assertEquals(maxSessionsPerUser, tokenStore.findTokensByUserId(userId).size());
+        assertTrue(tokenStore.containsKey(userId, "last"));
+    }
+
+    private long version() {
+        return versionRepository.findById(TokenStoreVersion.ID)
+            .map(TokenStoreVersion::getVersion)
+            .orElse(0L);
+    }
+}
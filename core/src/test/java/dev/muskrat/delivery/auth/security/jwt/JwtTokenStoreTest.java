@@ -0,0 +1,137 @@
+package dev.muskrat.delivery.auth.security.jwt;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class JwtTokenStoreTest {
+
+    private static final int THREADS = 8;
+    private static final int USERS = 16;
+    private static final int ROUNDS = 2000;
+    private static final int MAX_SESSIONS = 5;
+
+    private JwtTokenStore tokenStore;
+
+    @Before
+    public void init() {
+        tokenStore = new JwtTokenStore();
+        ReflectionTestUtils.setField(tokenStore, "sessionExpiredTime", 60000L);
+        ReflectionTestUtils.setField(tokenStore, "maxSessionsPerUser", MAX_SESSIONS);
+    }
+
+    @Test
+    public void concurrentLoginLookupLogoutTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<List<Login>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                List<Login> logins = new ArrayList<>();
+                start.await();
+                for (int i = 0; i < ROUNDS; i++) {
+                    long userId = (thread + i) % USERS;
+                    String key = thread + "-" + i;
+
+                    long started = System.currentTimeMillis();
+                    tokenStore.saveToken(userId, new JwtToken(key, "access", "refresh"));
+                    Login login = new Login(userId, key, started, System.currentTimeMillis());
+                    logins.add(login);
+
+                    // Another thread may have pushed it out over the session limit,
+                    // but a lookup must never break or see a foreign session
+                    tokenStore.readTokenByKey(userId, key)
+                        .ifPresent(token -> assertEquals(key, token.getKey()));
+
+                    if (i % 3 == 0) {
+                        tokenStore.removeTokenByKey(userId, key);
+                        login.removed = true;
+                    }
+                    assertTrue(tokenStore.findTokensByUserId(userId).size() <= MAX_SESSIONS);
+                }
+                return logins;
+            }));
+        }
+
+        start.countDown();
+        List<Login> logins = new ArrayList<>();
+        for (Future<List<Login>> future : futures)
+            logins.addAll(future.get(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        for (long userId = 0; userId < USERS; userId++)
+            assertTrue(tokenStore.findTokensByUserId(userId).size() <= MAX_SESSIONS);
+        assertTrue(tokenStore.size() <= USERS * MAX_SESSIONS);
+
+        // A session is only evicted for MAX_SESSIONS others of its user that are at least as new.
+        // Their expiry is taken inside their save, so each of them ended no earlier than this one began
+        for (Login login : logins) {
+            boolean present = tokenStore.containsKey(login.userId, login.key);
+            if (login.removed) {
+                assertFalse("removed session " + login.key + " came back", present);
+                continue;
+            }
+            if (present)
+                continue;
+
+            long newer = logins.stream()
+                .filter(other -> other != login && other.userId == login.userId && other.ended >= login.started)
+                .count();
+            assertTrue("session " + login.key + " of user " + login.userId + " lost with only "
+                + newer + " logins after it", newer >= MAX_SESSIONS);
+        }
+    }
+
+    @Test
+    public void sessionLimitEvictsOldestTest() throws Exception {
+        for (int i = 0; i < MAX_SESSIONS + 2; i++) {
+            tokenStore.saveToken(1L, new JwtToken("key-" + i, "access", "refresh"));
+            Thread.sleep(2);
+        }
+
+        assertEquals(MAX_SESSIONS, tokenStore.findTokensByUserId(1L).size());
+        assertFalse(tokenStore.containsKey(1L, "key-0"));
+        assertFalse(tokenStore.containsKey(1L, "key-1"));
+        assertTrue(tokenStore.containsKey(1L, "key-" + (MAX_SESSIONS + 1)));
+    }
+
+    @Test
+    public void sweepEvictsExpiredSessionsTest() throws Exception {
+        ReflectionTestUtils.setField(tokenStore, "sessionExpiredTime", 20L);
+        tokenStore.saveToken(1L, new JwtToken("short", "access", "refresh"));
+
+        ReflectionTestUtils.setField(tokenStore, "sessionExpiredTime", 60000L);
+        tokenStore.saveToken(2L, new JwtToken("long", "access", "refresh"));
+
+        Thread.sleep(50);
+        assertFalse(tokenStore.containsKey(1L, "short"));
+
+        tokenStore.sweep();
+        assertEquals(1, tokenStore.size());
+        assertTrue(tokenStore.containsKey(2L, "long"));
+    }
+
+    private static class Login {
+
+        private final long userId;
+        private final String key;
+        private final long started;
+        private final long ended;
+        private volatile boolean removed;
+
+        private Login(long userId, String key, long started, long ended) {
+            this.userId = userId;
+            this.key = key;
+            this.started = started;
+            this.ended = ended;
+        }
+    }
+}
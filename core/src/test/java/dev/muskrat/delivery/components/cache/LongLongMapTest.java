@@ -0,0 +1,186 @@
+package dev.muskrat.delivery.components.cache;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static dev.muskrat.delivery.components.cache.LongLongMap.NO_VALUE;
+import static org.junit.Assert.*;
+
+public class LongLongMapTest {
+
+    @Test
+    public void randomOperationsMatchHashMapTest() {
+        Random random = new Random(42);
+        LongLongMap map = new LongLongMap(Integer.MAX_VALUE);
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = key(random, 2_000);
+            int op = random.nextInt(10);
+            if (op < 5) {
+                long value = random.nextLong();
+                if (value == NO_VALUE)
+                    value = 0;
+                map.put(key, value);
+                expected.put(key, value);
+            } else if (op < 8) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                assertEquals("get " + key + " after " + i + " operations",
+                    (long) expected.getOrDefault(key, NO_VALUE), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (long key = -2_000; key <= 2_000; key++) {
+            if (key != 0)
+                assertEquals((long) expected.getOrDefault(key, NO_VALUE), map.get(key));
+        }
+    }
+
+    @Test
+    public void removedSlotsAreReusedTest() {
+        // Few keys in the initial 64 slots, so the probe chains cross and wrap around the table
+        Random random = new Random(7);
+        LongLongMap map = new LongLongMap(Integer.MAX_VALUE);
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = key(random, 24);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            } else {
+                map.remove(key);
+                expected.remove(key);
+            }
+
+            for (long k = -24; k <= 24; k++) {
+                if (k != 0)
+                    assertEquals("get " + k + " after " + i + " operations",
+                        (long) expected.getOrDefault(k, NO_VALUE), map.get(k));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test
+    public void growsPastInitialCapacityTest() {
+        LongLongMap map = new LongLongMap(Integer.MAX_VALUE);
+        for (long key = 1; key <= 10_000; key++)
+            map.put(key * 64, key);
+        assertEquals(10_000, map.size());
+
+        for (long key = 1; key <= 10_000; key += 2)
+            map.remove(key * 64);
+        assertEquals(5_000, map.size());
+
+        for (long key = 1; key <= 10_000; key++)
+            assertEquals(key % 2 == 0 ? key : NO_VALUE, map.get(key * 64));
+    }
+
+    @Test
+    public void clearsAtMaxSizeTest() {
+        LongLongMap map = new LongLongMap(100);
+        for (long key = 1; key <= 100; key++)
+            map.put(key, key);
+        assertEquals(100, map.size());
+
+        // Updating a key already there is not growth
+        map.put(50, -50);
+        assertEquals(100, map.size());
+        assertEquals(-50, map.get(50));
+
+        // One more key starts over with just that key
+        map.put(101, 101);
+        assertEquals(1, map.size());
+        assertEquals(101, map.get(101));
+        for (long key = 1; key <= 100; key++)
+            assertEquals(NO_VALUE, map.get(key));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(NO_VALUE, map.get(101));
+    }
+
+    @Test
+    public void zeroKeyTest() {
+        LongLongMap map = new LongLongMap(100);
+        map.put(1, 7);
+        map.remove(1);
+
+        assertEquals(NO_VALUE, map.get(0));
+        map.remove(0);
+        try {
+            map.put(0, 1);
+            fail("Key 0 must be refused");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void readersDuringWritesTest() throws Exception {
+        // Every key only ever maps to value(key), so a reader seeing anything else saw a torn entry
+        int readers = 4;
+        LongLongMap map = new LongLongMap(5_000);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+
+        List<Future<Long>> reads = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            int seed = r;
+            reads.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                long found = 0;
+                while (!done.get()) {
+                    long key = key(random, 8_000);
+                    long value = map.get(key);
+                    if (value != NO_VALUE) {
+                        assertEquals("value of " + key, value(key), value);
+                        found++;
+                    }
+                }
+                return found;
+            }));
+        }
+
+        // Grows through several resizes, clears at max size and removes along the way
+        Future<?> writer = executor.submit(() -> {
+            Random random = new Random(99);
+            for (int i = 0; i < 500_000; i++) {
+                long key = key(random, 8_000);
+                if (random.nextInt(4) == 0)
+                    map.remove(key);
+                else
+                    map.put(key, value(key));
+            }
+            return null;
+        });
+
+        try {
+            writer.get(60, TimeUnit.SECONDS);
+        } finally {
+            done.set(true);
+        }
+        long found = 0;
+        for (Future<Long> read : reads)
+            found += read.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertTrue("readers never met a key", found > 0);
+    }
+
+    private static long key(Random random, int range) {
+        long key = random.nextInt(2 * range + 1) - range;
+        return key == 0 ? 1 : key;
+    }
+
+    private static long value(long key) {
+        return key * 31 + 17;
+    }
+}
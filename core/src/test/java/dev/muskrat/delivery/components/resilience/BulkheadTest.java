@@ -0,0 +1,74 @@
+package dev.muskrat.delivery.components.resilience;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class BulkheadTest {
+
+    @Test
+    public void saturationRejectsTest() {
+        Bulkhead bulkhead = new Bulkhead(2, Duration.ofMillis(10));
+
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertEquals(0, bulkhead.getAvailable());
+
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(1, bulkhead.getRejected());
+
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+        assertEquals(1, bulkhead.getRejected());
+    }
+
+    @Test
+    public void waitsForReleasedSlotTest() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, Duration.ofSeconds(10));
+        assertTrue(bulkhead.tryAcquire());
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        executor.schedule(bulkhead::release, 50, TimeUnit.MILLISECONDS);
+        try {
+            assertTrue(bulkhead.tryAcquire());
+            assertEquals(0, bulkhead.getRejected());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentCallersNeverExceedSlotsTest() throws Exception {
+        int slots = 3;
+        int threads = 12;
+        Bulkhead bulkhead = new Bulkhead(slots, Duration.ZERO);
+
+        // Every caller holds its slot until all of them have tried
+        CountDownLatch tried = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Future<?>[] futures = new Future<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            futures[i] = executor.submit(() -> {
+                boolean acquired = bulkhead.tryAcquire();
+                tried.countDown();
+                tried.await();
+                if (acquired)
+                    bulkhead.release();
+                return acquired;
+            });
+        }
+
+        int acquired = 0;
+        for (Future<?> future : futures)
+            if ((Boolean) future.get(10, TimeUnit.SECONDS))
+                acquired++;
+        executor.shutdown();
+
+        assertEquals(slots, acquired);
+        assertEquals(threads - slots, bulkhead.getRejected());
+        assertEquals(slots, bulkhead.getAvailable());
+    }
+}
@@ -0,0 +1,101 @@
+package dev.muskrat.delivery.components.resilience;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    // Long enough that an open breaker never reaches half-open during a test
+    private static final Duration LONG = Duration.ofHours(1);
+
+    @Test
+    public void opensAfterConsecutiveFailuresTest() {
+        CircuitBreaker breaker = new CircuitBreaker(3, LONG);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getOpened());
+        assertEquals(2, breaker.getRejected());
+    }
+
+    @Test
+    public void halfOpenProbeClosesTest() {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ZERO);
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // The open period is over: one probe goes through, everyone else waits for its answer
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(1, breaker.getOpened());
+        assertEquals(1, breaker.getHalfOpened());
+        assertEquals(1, breaker.getClosed());
+        assertEquals(1, breaker.getRejected());
+    }
+
+    @Test
+    public void halfOpenProbeFailureReopensTest() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(50));
+        breaker.onFailure();
+        Thread.sleep(60);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2, breaker.getOpened());
+
+        // A new open period, then a new probe
+        Thread.sleep(60);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(2, breaker.getHalfOpened());
+    }
+
+    @Test
+    public void halfOpenSingleProbeUnderContentionTest() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ZERO);
+        breaker.onFailure();
+
+        int threads = 16;
+        Thread[] workers = new Thread[threads];
+        boolean[] acquired = new boolean[threads];
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            workers[i] = new Thread(() -> acquired[index] = breaker.tryAcquire());
+        }
+        for (Thread worker : workers)
+            worker.start();
+        for (Thread worker : workers)
+            worker.join();
+
+        int probes = 0;
+        for (boolean a : acquired)
+            if (a)
+                probes++;
+        assertEquals(1, probes);
+        assertEquals(threads - 1, breaker.getRejected());
+    }
+}
@@ -4,9 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.muskrat.delivery.DemoData;
 import dev.muskrat.delivery.admin.dto.AdminStatsDTO;
 import dev.muskrat.delivery.admin.dto.AdminStatsResponseDTO;
+import dev.muskrat.delivery.order.dao.OrderRepository;
+import dev.muskrat.delivery.order.dao.OrderViewRepository;
 import dev.muskrat.delivery.shop.dao.Shop;
+import dev.muskrat.delivery.shop.dao.ShopRepository;
+import dev.muskrat.delivery.shop.dto.ShopDTO;
 import dev.muskrat.delivery.shop.dto.ShopStatsDTO;
 import dev.muskrat.delivery.shop.dto.ShopStatsResponseDTO;
+import dev.muskrat.delivery.shop.service.ShopService;
 import lombok.SneakyThrows;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -20,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -38,6 +44,18 @@ public class AdminControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
     @Test
     @SneakyThrows
     @Transactional
@@ -62,4 +80,42 @@ public class AdminControllerTest {
 
         assertTrue(shopStatsResponseDTO.getProfit() > 0);
     }
+
+    @Test
+    @SneakyThrows
+    @Transactional
+    public void locateShopsTest() {
+        // Resolved by the test gazetteer (src/test/resources/gazetteer.csv), never by HERE
+        Shop shop = demoData.shops.get(0);
+        shop.setAddress("103 jalan kampung  NYABOR");
+        shop.setLocation(null);
+        shopRepository.save(shop);
+
+        mockMvc.perform(post("/admin/shops/locate")
+            .header("Authorization", demoData.ACCESS_ADMIN)
+            .header("Key", demoData.KEY_ADMIN)
+        )
+            .andExpect(status().isOk());
+
+        ShopDTO shopDTO = shopService.findById(shop.getId()).orElseThrow();
+        assertEquals(2.2965, shopDTO.getLocationX(), 1e-6);
+        assertEquals(111.8271, shopDTO.getLocationY(), 1e-6);
+        assertEquals("103 Jalan Kampung Nyabor", shopDTO.getAddress());
+    }
+
+    @Test
+    @SneakyThrows
+    @Transactional
+    public void rebuildOrdersTest() {
+        // A database that had orders before order_view existed
+        orderViewRepository.deleteAllInBatch();
+
+        mockMvc.perform(post("/admin/orders/rebuild")
+            .header("Authorization", demoData.ACCESS_ADMIN)
+            .header("Key", demoData.KEY_ADMIN)
+        )
+            .andExpect(status().isOk());
+
+        assertEquals(orderRepository.count(), orderViewRepository.count());
+    }
 }
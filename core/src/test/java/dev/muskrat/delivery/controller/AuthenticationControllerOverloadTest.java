@@ -0,0 +1,86 @@
+package dev.muskrat.delivery.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.muskrat.delivery.auth.dto.UserLoginDTO;
+import lombok.SneakyThrows;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A database of its own, the migrations cannot run twice on the one the other tests share
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:overload",
+    "spring.liquibase.url=jdbc:h2:mem:overload",
+    "application.security.password-hash.threads=1",
+    "application.security.password-hash.queue-depth=0"
+})
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+public class AuthenticationControllerOverloadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private ThreadPoolTaskExecutor passwordHashExecutor;
+
+    @Test
+    @SneakyThrows
+    public void loginOverloadTest() {
+        UserLoginDTO userLoginDTO = UserLoginDTO.builder()
+            .username("user@gmail.com")
+            .password("test")
+            .build();
+
+        // Holds the only hash thread and the one slot the pool keeps behind it, so the login is shed
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> busy = passwordHashExecutor.submit(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        started.await();
+        Future<?> queued = passwordHashExecutor.submit(() -> null);
+
+        try {
+            mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userLoginDTO))
+            )
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        } finally {
+            release.countDown();
+            busy.get();
+            queued.get();
+        }
+
+        mockMvc.perform(post("/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(userLoginDTO))
+        )
+            .andExpect(status().isOk());
+    }
+}
@@ -263,4 +263,32 @@ public class AuthenticationControllerTest {
         JwtToken checkable = tokensByUserId.stream().findFirst().get();
         assertEquals(key, checkable.getKey());
     }
+
+    @Test
+    @SneakyThrows
+    public void registerTrailingSlashRateLimitTest() {
+        // An address of its own, the other tests share the default bucket
+        for (int i = 0; i < 10; i++) {
+            int status = mockMvc.perform(post("/auth/register/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}")
+                .with(request -> {
+                    request.setRemoteAddr("10.0.0.18");
+                    return request;
+                })
+            )
+                .andReturn().getResponse().getStatus();
+            assertNotEquals(429, status);
+        }
+
+        mockMvc.perform(post("/auth/register/")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}")
+            .with(request -> {
+                request.setRemoteAddr("10.0.0.18");
+                return request;
+            })
+        )
+            .andExpect(status().isTooManyRequests());
+    }
 }
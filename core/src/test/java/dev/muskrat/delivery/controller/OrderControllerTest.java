@@ -3,13 +3,16 @@ package dev.muskrat.delivery.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.muskrat.delivery.DemoData;
 import dev.muskrat.delivery.cities.dao.City;
+import dev.muskrat.delivery.map.dao.RegionDelivery;
+import dev.muskrat.delivery.map.dao.RegionDeliveryRepository;
 import dev.muskrat.delivery.order.dao.Order;
 import dev.muskrat.delivery.order.dao.OrderRepository;
 import dev.muskrat.delivery.order.dao.OrderStatusRepository;
+import dev.muskrat.delivery.order.dao.OrderView;
+import dev.muskrat.delivery.order.dao.OrderViewRepository;
 import dev.muskrat.delivery.order.dto.*;
 import dev.muskrat.delivery.order.service.OrderService;
 import dev.muskrat.delivery.shop.dao.Shop;
-import dev.muskrat.delivery.shop.dto.ShopCreateResponseDTO;
 import dev.muskrat.delivery.validations.dto.ValidationExceptionDTO;
 import lombok.SneakyThrows;
 import org.junit.Test;
@@ -24,6 +27,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
@@ -59,6 +63,12 @@ public class OrderControllerTest {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private RegionDeliveryRepository regionDeliveryRepository;
+
     @Test
     @SneakyThrows
     @Transactional
@@ -144,8 +154,8 @@ public class OrderControllerTest {
             .andExpect(status().isOk())
             .andReturn().getResponse();
 
-        ShopCreateResponseDTO item = objectMapper
-            .readValue(response.getContentAsString(), ShopCreateResponseDTO.class);
+        OrderDTO item = objectMapper
+            .readValue(response.getContentAsString(), OrderDTO.class);
 
         Long createdOrderId = item.getId();
 
@@ -153,6 +163,47 @@ public class OrderControllerTest {
             .findById(createdOrderId).orElseThrow();
 
         assertEquals(createdItem.getId(), createdOrderId);
+
+        List<OrderProductCostDTO> productCosts = item.getProductCosts();
+        assertEquals(products.size(), productCosts.size());
+        double cost = productCosts.stream().mapToDouble(OrderProductCostDTO::getCost).sum();
+        assertEquals(item.getCost(), cost, 0.01);
+    }
+
+    @Test
+    @SneakyThrows
+    @Transactional
+    public void orderCreateAfterRegionMovedElsewhereTest() {
+        Shop shop = demoData.shops.get(0);
+
+        // Another node moves the region away from the address, this node's index still has the old one
+        RegionDelivery region = regionDeliveryRepository.findById(shop.getRegion().getId()).orElseThrow();
+        region.setAbscissa(new ArrayList<>(List.of(0D, 0D, 1D)));
+        region.setOrdinate(new ArrayList<>(List.of(0D, 1D, 0D)));
+        regionDeliveryRepository.saveAndFlush(region);
+
+        List<OrderProductDTO> products = shop.getProducts().stream()
+            .map(dto -> OrderProductDTO.builder()
+                .productId(dto.getId())
+                .count(1)
+                .build())
+            .collect(Collectors.toList());
+
+        OrderCreateDTO orderCreateDTO = OrderCreateDTO.builder()
+            .name("Ivan Ivanov")
+            .address("Jalan Teoh Kim Swee, 4")
+            .email("sugarisboy@outlook.com")
+            .phone("79201213330")
+            .shopId(shop.getId())
+            .products(products)
+            .build();
+
+        mockMvc.perform(post("/order/create")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(orderCreateDTO))
+        )
+            .andExpect(status().isConflict());
     }
 
     @Test
@@ -252,4 +303,38 @@ public class OrderControllerTest {
         assertNotNull(responseDTO.getCostAndDelivery());
         assertEquals(responseDTO.getId(), orderId);
     }
+
+    @Test
+    @SneakyThrows
+    public void orderPageQueryCountTest() {
+        QueryBudget.assertFlatPage(mockMvc, size -> post("/order/page?size=" + size)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}")
+            .header("Authorization", demoData.ACCESS_ADMIN)
+            .header("Key", demoData.KEY_ADMIN), "$.orders", 2);
+    }
+
+    @Test
+    @SneakyThrows
+    public void orderPageWalkTest() {
+        PageWalk.assertWalk(mockMvc, size -> post("/order/page?size=" + size)
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("Authorization", demoData.ACCESS_ADMIN)
+            .header("Key", demoData.KEY_ADMIN), "orders", 2);
+    }
+
+    @Test
+    @Transactional
+    public void orderViewLargeBasketTest() {
+        Order order = demoData.orders.get(0);
+        OrderView view = orderViewRepository.findById(order.getId()).orElseThrow();
+
+        String products = "[" + "{\"productId\":1,\"count\":1},".repeat(1000) + "{\"productId\":1,\"count\":1}]";
+        view.setProducts(products);
+        orderViewRepository.saveAndFlush(view);
+
+        jdbcTemplate.query("SELECT products FROM order_view WHERE id = ?", rs -> {
+            assertEquals(products, rs.getString(1));
+        }, order.getId());
+    }
 }
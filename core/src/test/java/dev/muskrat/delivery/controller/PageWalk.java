@@ -0,0 +1,75 @@
+package dev.muskrat.delivery.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks a keyset listing through its nextCursor links, as a client would.
+ */
+class PageWalk {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Follows nextCursor from the first page of {@code size} until a page comes
+     * back without one. Every item of the unpaged listing under {@code items}
+     * has to turn up exactly once on the way, and cursors the server never
+     * issued are refused with 400.
+     */
+    static void assertWalk(MockMvc mockMvc, IntFunction<MockHttpServletRequestBuilder> page, String items, int size)
+        throws Exception {
+
+        Set<Long> all = new HashSet<>(ids(read(mockMvc, page.apply(1000).content("{}")), items));
+        int maxPages = all.size() / size + 1;
+
+        List<Long> walked = new ArrayList<>();
+        int pages = 0;
+        String cursor = "";
+        while (cursor != null) {
+            assertTrue("still a nextCursor after " + pages + " pages", pages < maxPages);
+
+            JsonNode body = read(mockMvc, page.apply(size).content(JSON.writeValueAsString(Map.of("cursor", cursor))));
+            List<Long> ids = ids(body, items);
+            pages++;
+
+            JsonNode next = body.path("nextCursor");
+            cursor = next.isTextual() ? next.asText() : null;
+            if (cursor != null)
+                assertEquals("page " + pages + " has a nextCursor but is not full", size, ids.size());
+            else
+                assertFalse("page " + pages + " is the last one but empty", ids.isEmpty() && pages > 1);
+            walked.addAll(ids);
+        }
+
+        assertTrue("walked a single page, the listing is too small to test", pages > 1);
+        assertEquals("items met twice " + walked, walked.size(), new HashSet<>(walked).size());
+        assertEquals("items missed", all, new HashSet<>(walked));
+
+        // Not Base64, then Base64 of something that is not a cursor
+        for (String garbage : List.of("not a cursor", "Z2FyYmFnZQ"))
+            mockMvc.perform(page.apply(size).content(JSON.writeValueAsString(Map.of("cursor", garbage))))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static JsonNode read(MockMvc mockMvc, MockHttpServletRequestBuilder request) throws Exception {
+        String content = mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return JSON.readTree(content);
+    }
+
+    private static List<Long> ids(JsonNode body, String items) {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode item : body.path(items))
+            ids.add(item.path("id").asLong());
+        return ids;
+    }
+}
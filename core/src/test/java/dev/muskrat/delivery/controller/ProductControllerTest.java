@@ -141,4 +141,19 @@ public class ProductControllerTest {
         Optional<ProductDTO> byId = productService.findById(productId);
         assertTrue(byId.isEmpty());
     }
+
+    @Test
+    @SneakyThrows
+    public void pageQueryCountTest() {
+        QueryBudget.assertFlatPage(mockMvc, size -> post("/product/page?size=" + size)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}"), "$.products", 2);
+    }
+
+    @Test
+    @SneakyThrows
+    public void pageWalkTest() {
+        PageWalk.assertWalk(mockMvc, size -> post("/product/page?size=" + size)
+            .contentType(MediaType.APPLICATION_JSON), "products", 2);
+    }
 }
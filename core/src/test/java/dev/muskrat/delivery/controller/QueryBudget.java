@@ -0,0 +1,67 @@
+package dev.muskrat.delivery.controller;
+
+import dev.muskrat.delivery.auth.security.jwt.JdbcTokenStore;
+import dev.muskrat.delivery.auth.security.jwt.TokenStore;
+import dev.muskrat.delivery.components.sql.SqlStatementFilter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.function.IntFunction;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails a request that runs more SQL statements than the budget declared by
+ * its test, as counted by {@link SqlStatementFilter}.
+ */
+class QueryBudget {
+
+    static ResultMatcher atMost(long budget) {
+        return result -> {
+            long statements = statements(result);
+            if (statements > budget)
+                throw new AssertionError(result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                    + " ran " + statements + " SQL statements, over its budget of " + budget);
+        };
+    }
+
+    static long statements(MvcResult result) {
+        Object statements = result.getRequest().getAttribute(SqlStatementFilter.COUNT_ATTRIBUTE);
+        if (statements == null)
+            throw new AssertionError("SQL statements were not counted, is SqlStatementFilter registered?");
+        return (Long) statements;
+    }
+
+    /**
+     * Runs a page of 1 and a full page of 3, the items at {@code items} must
+     * fill both. Each has to fit the budget and both have to cost the same,
+     * so a query per item fails even while the page is small.
+     */
+    static void assertFlatPage(MockMvc mockMvc, IntFunction<MockHttpServletRequestBuilder> page, String items, long budget)
+        throws Exception {
+
+        // Session lookups must hit the near-cache in both runs, not in only one
+        TokenStore tokenStore = mockMvc.getDispatcherServlet().getWebApplicationContext().getBean(TokenStore.class);
+        if (tokenStore instanceof JdbcTokenStore)
+            ((JdbcTokenStore) tokenStore).poll();
+        mockMvc.perform(page.apply(1)).andExpect(status().isOk());
+
+        MvcResult one = mockMvc.perform(page.apply(1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath(items, hasSize(1)))
+            .andExpect(atMost(budget))
+            .andReturn();
+        MvcResult three = mockMvc.perform(page.apply(3))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath(items, hasSize(3)))
+            .andExpect(atMost(budget))
+            .andReturn();
+
+        assertEquals("SQL statements of a page of 1 and of 3", statements(one), statements(three));
+    }
+}
@@ -135,6 +135,33 @@ public class ShopControllerTest {
         assertEquals(updateDTO.getName(), "new name");
     }
 
+    @Test
+    @SneakyThrows
+    @Transactional
+    public void shopUpdateStoresResolvedAddressTest() {
+        Shop shop = demoData.shops.get(0);
+
+        ShopUpdateDTO updateDTO = ShopUpdateDTO.builder()
+            .id(shop.getId())
+            .address("95 jalan kampung  NYABOR")
+            .build();
+
+        mockMvc.perform(patch("/shop/update")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON)
+            .header("Authorization", demoData.ACCESS_PARTNER)
+            .header("Key", demoData.KEY_PARTNER)
+            .content(objectMapper.writeValueAsString(updateDTO))
+        )
+            .andExpect(status().isOk());
+
+        // As the test gazetteer spells it, with the location it points at
+        ShopDTO shopDTO = shopService.findById(shop.getId()).orElseThrow();
+        assertEquals("95 Jalan Kampung Nyabor", shopDTO.getAddress());
+        assertEquals(2.2962, shopDTO.getLocationX(), 1e-6);
+        assertEquals(111.8268, shopDTO.getLocationY(), 1e-6);
+    }
+
     @Test
     @SneakyThrows
     @Transactional
@@ -295,4 +322,19 @@ public class ShopControllerTest {
 
         assertEquals(shops1.size(), 3);
     }
+
+    @Test
+    @SneakyThrows
+    public void findAllByPageQueryCountTest() {
+        QueryBudget.assertFlatPage(mockMvc, size -> post("/shop/page?size=" + size)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}"), "$.shops", 4);
+    }
+
+    @Test
+    @SneakyThrows
+    public void findAllByPageWalkTest() {
+        PageWalk.assertWalk(mockMvc, size -> post("/shop/page?size=" + size)
+            .contentType(MediaType.APPLICATION_JSON), "shops", 2);
+    }
 }
@@ -58,6 +58,8 @@ public class UserControllerTest {
             .header("Key", demoData.KEY_PARTNER)
         )
             .andExpect(status().isOk())
+            // Two for the user, one more when the session misses the near-cache
+            .andExpect(QueryBudget.atMost(3))
             .andReturn().getResponse().getContentAsString();
 
         UserDTO userDTO = objectMapper
@@ -155,4 +157,23 @@ public class UserControllerTest {
 
         assertEquals(cityId, user.getCity().getId());
     }
+
+    @Test
+    @SneakyThrows
+    public void pageQueryCountTest() {
+        QueryBudget.assertFlatPage(mockMvc, size -> post("/user/page?size=" + size)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}")
+            .header("Authorization", demoData.ACCESS_ADMIN)
+            .header("Key", demoData.KEY_ADMIN), "$.users", 2);
+    }
+
+    @Test
+    @SneakyThrows
+    public void pageWalkTest() {
+        PageWalk.assertWalk(mockMvc, size -> post("/user/page?size=" + size)
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("Authorization", demoData.ACCESS_ADMIN)
+            .header("Key", demoData.KEY_ADMIN), "users", 2);
+    }
 }
@@ -0,0 +1,158 @@
+package dev.muskrat.delivery.map.service;
+
+import dev.muskrat.delivery.components.exception.LocationParseException;
+import dev.muskrat.delivery.components.exception.MapApiUnavailableException;
+import dev.muskrat.delivery.components.resilience.Bulkhead;
+import dev.muskrat.delivery.components.resilience.CircuitBreaker;
+import dev.muskrat.delivery.map.dao.RegionPoint;
+import dev.muskrat.delivery.map.dto.AutoCompleteResponseDTO;
+import dev.muskrat.delivery.map.dto.GeocoderStatsDTO;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ResilientMapApiTest {
+
+    @Test
+    public void transportFailuresOpenCircuitTest() {
+        StubMapApi stub = new StubMapApi();
+        stub.failure = new LocationParseException("timeout");
+        ResilientMapApi api = new ResilientMapApi(
+            stub, new CircuitBreaker(2, Duration.ofHours(1)), new Bulkhead(4, Duration.ZERO)
+        );
+
+        for (int i = 0; i < 2; i++)
+            assertTrue(thrown(() -> api.isValidAddress("city", "label")) instanceof LocationParseException);
+
+        // Open: rejected without reaching the geocoder
+        RuntimeException ex = thrown(() -> api.isValidAddress("city", "label"));
+        assertTrue(ex instanceof MapApiUnavailableException);
+        assertEquals("MapApi circuit open", ex.getMessage());
+        assertEquals(2, stub.calls.get());
+
+        GeocoderStatsDTO stats = api.stats();
+        assertEquals("OPEN", stats.getState());
+        assertEquals(1, (long) stats.getCircuitRejections());
+        assertEquals(4, (int) stats.getBulkheadAvailable());
+    }
+
+    @Test
+    public void notFoundKeepsCircuitClosedTest() {
+        StubMapApi stub = new StubMapApi();
+        ResilientMapApi api = new ResilientMapApi(
+            stub, new CircuitBreaker(2, Duration.ofHours(1)), new Bulkhead(4, Duration.ZERO)
+        );
+
+        for (int i = 0; i < 5; i++)
+            assertFalse(api.isValidAddress("city", "nowhere"));
+
+        // Other exceptions are answers too, only LocationParseException means the geocoder is unwell
+        stub.failure = new IllegalArgumentException("bad label");
+        for (int i = 0; i < 5; i++)
+            assertTrue(thrown(() -> api.isValidAddress("city", "label")) instanceof IllegalArgumentException);
+
+        assertEquals("CLOSED", api.stats().getState());
+        assertEquals(10, stub.calls.get());
+    }
+
+    @Test
+    public void halfOpenProbeClosesCircuitTest() {
+        StubMapApi stub = new StubMapApi();
+        stub.failure = new LocationParseException("timeout");
+        ResilientMapApi api = new ResilientMapApi(
+            stub, new CircuitBreaker(1, Duration.ZERO), new Bulkhead(4, Duration.ZERO)
+        );
+        assertTrue(thrown(() -> api.isValidAddress("city", "label")) instanceof LocationParseException);
+        assertEquals("OPEN", api.stats().getState());
+
+        stub.failure = null;
+        assertFalse(api.isValidAddress("city", "label"));
+
+        GeocoderStatsDTO stats = api.stats();
+        assertEquals("CLOSED", stats.getState());
+        assertEquals(1, (long) stats.getHalfOpened());
+        assertEquals(1, (long) stats.getClosed());
+    }
+
+    @Test
+    public void saturatedBulkheadFailsFastTest() throws Exception {
+        StubMapApi stub = new StubMapApi();
+        stub.blocked = new CountDownLatch(1);
+        ResilientMapApi api = new ResilientMapApi(
+            stub, new CircuitBreaker(1, Duration.ofHours(1)), new Bulkhead(1, Duration.ZERO)
+        );
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> holder = executor.submit(() -> api.isValidAddress("city", "label"));
+            assertTrue(stub.entered.await(10, TimeUnit.SECONDS));
+
+            RuntimeException ex = thrown(() -> api.isValidAddress("city", "label"));
+            assertTrue(ex instanceof MapApiUnavailableException);
+            assertEquals("MapApi busy", ex.getMessage());
+
+            // A full bulkhead is back pressure, not a geocoder failure
+            CompletableFuture<Boolean> async = api.isValidAddressAsync("city", "label");
+            assertTrue(async.isCompletedExceptionally());
+            assertTrue(thrown(async::join).getCause() instanceof MapApiUnavailableException);
+
+            stub.blocked.countDown();
+            assertFalse(holder.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+
+        GeocoderStatsDTO stats = api.stats();
+        assertEquals("CLOSED", stats.getState());
+        assertEquals(2, (long) stats.getBulkheadRejections());
+        assertEquals(1, (int) stats.getBulkheadAvailable());
+        assertEquals(1, stub.calls.get());
+    }
+
+    private static RuntimeException thrown(Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+        throw new AssertionError("Expected the call to throw");
+    }
+
+    private static class StubMapApi implements MapApi {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile RuntimeException failure;
+        private volatile CountDownLatch blocked;
+
+        @Override
+        public boolean isValidAddress(String city, String label) {
+            calls.incrementAndGet();
+            entered.countDown();
+            if (blocked != null) {
+                try {
+                    blocked.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null)
+                throw failure;
+            return false;
+        }
+
+        @Override
+        public AutoCompleteResponseDTO autoComplete(String label) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RegionPoint getPointByAddress(String label) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}